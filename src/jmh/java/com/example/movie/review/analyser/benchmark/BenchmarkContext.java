@@ -0,0 +1,39 @@
+package com.example.movie.review.analyser.benchmark;
+
+import com.example.movie.review.analyser.MovieReviewAnalyserApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the application for a benchmark trial: profile "test" (so DataInitializer does not load
+ * the warehouse), no web server, a private in-memory H2 database and no persisted caches.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /** @param properties extra "key=value" overrides, e.g. cache sizes taken from benchmark params */
+    static ConfigurableApplicationContext start(String... properties) {
+        // Passed as command line arguments, which take precedence over application.properties
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        settings.put("spring.jpa.hibernate.ddl-auto", "create");
+        settings.put("sentiment.cache.file", "");
+        settings.put("movie-cache.warm-up.top-movies", "0");
+        settings.put("logging.level.root", "WARN");
+        for (String property : properties) {
+            int equals = property.indexOf('=');
+            settings.put(property.substring(0, equals), property.substring(equals + 1));
+        }
+        SpringApplication application = new SpringApplication(MovieReviewAnalyserApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("test");
+        return application.run(settings.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+}
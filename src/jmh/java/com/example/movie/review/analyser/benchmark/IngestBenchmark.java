@@ -0,0 +1,54 @@
+package com.example.movie.review.analyser.benchmark;
+
+import com.example.movie.review.analyser.loader.XlsxSheetParser;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of the XLSX parsing stage the warehouse loader runs for each workbook (unzip,
+ * shared strings, SAX), on a generated MOVIE-shaped workbook of {@code rows} rows. The "rows"
+ * counter in the results is the rows/sec figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IngestBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private Path workbook;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long rows;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        workbook = Files.createTempFile("ingest-benchmark", ".xlsx");
+        SyntheticData.writeMovieWorkbook(workbook, rows);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(workbook);
+    }
+
+    @Benchmark
+    public void parseWorkbook(Counters counters) throws Exception {
+        // Opened from a stream, as DataInitializer does for classpath workbooks
+        try (InputStream in = Files.newInputStream(workbook); OPCPackage pkg = OPCPackage.open(in)) {
+            XlsxSheetParser.parse(pkg, header -> { }, batch -> counters.rows += batch.size());
+        }
+    }
+}
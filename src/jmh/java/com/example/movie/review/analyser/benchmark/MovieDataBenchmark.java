@@ -0,0 +1,79 @@
+package com.example.movie.review.analyser.benchmark;
+
+import com.example.movie.review.analyser.dto.CastMember;
+import com.example.movie.review.analyser.dto.MovieSummary;
+import com.example.movie.review.analyser.model.Movie;
+import com.example.movie.review.analyser.service.LocalMovieDataService;
+import com.example.movie.review.analyser.service.MovieTitleIndex;
+import com.example.movie.review.analyser.service.SimilarMovieGraph;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of {@link LocalMovieDataService} over a synthetic warehouse of {@code movies} films,
+ * with random film ids and search terms. {@code cacheSize} sets every movie-cache region, so
+ * 0 measures the uncached database path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieDataBenchmark {
+
+    @Param({"10000", "100000"})
+    public int movies;
+
+    @Param({"0", "50000"})
+    public int cacheSize;
+
+    private ConfigurableApplicationContext context;
+    private LocalMovieDataService service;
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("movie-cache.movies.max-size=" + cacheSize,
+            "movie-cache.cast.max-size=" + cacheSize, "movie-cache.external-reviews.max-size=" + cacheSize);
+        SyntheticData.populate(context.getBean(JdbcTemplate.class), movies);
+        context.getBean(MovieTitleIndex.class).rebuild();
+        context.getBean(SimilarMovieGraph.class).rebuild();
+        service = context.getBean(LocalMovieDataService.class);
+        queries = SyntheticData.searchQueries();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Movie> searchMovies() {
+        return service.searchMovies(queries[ThreadLocalRandom.current().nextInt(queries.length)]);
+    }
+
+    @Benchmark
+    public List<CastMember> getCastForMovie() {
+        return service.getCastForMovie(randomFilmId());
+    }
+
+    @Benchmark
+    public List<MovieSummary> getSimilarMovies() {
+        return service.getSimilarMovies(randomFilmId());
+    }
+
+    @Benchmark
+    public List<MovieSummary> getSimilarMoviesTwoHops() {
+        return service.getSimilarMovies(randomFilmId(), 2, 20);
+    }
+
+    private int randomFilmId() {
+        return 1 + ThreadLocalRandom.current().nextInt(movies);
+    }
+}
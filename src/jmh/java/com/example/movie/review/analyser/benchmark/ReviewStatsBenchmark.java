@@ -0,0 +1,46 @@
+package com.example.movie.review.analyser.benchmark;
+
+import com.example.movie.review.analyser.controller.ReviewController;
+import com.example.movie.review.analyser.dto.ReviewStats;
+import com.example.movie.review.analyser.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/** {@code GET /api/reviews/stats} for a title with {@code reviews} user reviews. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewStatsBenchmark {
+
+    private static final String TITLE = "Benchmark Movie";
+
+    @Param({"100", "10000", "100000"})
+    public int reviews;
+
+    private ConfigurableApplicationContext context;
+    private ReviewController controller;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        SyntheticData.populateReviews(context.getBean(JdbcTemplate.class), TITLE, reviews);
+        context.getBean(ReviewService.class).rebuildAggregates();
+        controller = context.getBean(ReviewController.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReviewStats getReviewStats() {
+        return controller.getReviewStats(TITLE);
+    }
+}
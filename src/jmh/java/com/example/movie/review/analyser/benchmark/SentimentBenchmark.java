@@ -0,0 +1,68 @@
+package com.example.movie.review.analyser.benchmark;
+
+import com.example.movie.review.analyser.service.SentimentAnalysisService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring through {@link SentimentAnalysisService}, one text per call and in batches of
+ * {@code batchSize}, per {@code sentiment.mode} (lexicon only, hybrid, CoreNLP only). The result
+ * cache is off ({@code cacheSize} = 0) unless asked for, so every escalated call pays for a parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SentimentBenchmark {
+
+    @Param({"lexicon", "hybrid", "corenlp"})
+    public String mode;
+
+    @Param({"16"})
+    public int batchSize;
+
+    @Param({"0"})
+    public int cacheSize;
+
+    @Param({"1000"})
+    public int distinctTexts;
+
+    private ConfigurableApplicationContext context;
+    private SentimentAnalysisService service;
+    private String[] texts;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("sentiment.mode=" + mode, "sentiment.cache.max-size=" + cacheSize);
+        service = context.getBean(SentimentAnalysisService.class);
+        Random random = new Random(SyntheticData.SEED);
+        texts = new String[distinctTexts];
+        for (int i = 0; i < texts.length; i++) texts[i] = SyntheticData.reviewText(random);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String analyzeSentiment() {
+        return service.analyzeSentiment(texts[ThreadLocalRandom.current().nextInt(texts.length)]);
+    }
+
+    // Reported per batch; multiply by batchSize for texts per second
+    @Benchmark
+    public List<String> analyzeBatch() {
+        List<String> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) batch.add(texts[ThreadLocalRandom.current().nextInt(texts.length)]);
+        return service.analyzeBatch(batch);
+    }
+}
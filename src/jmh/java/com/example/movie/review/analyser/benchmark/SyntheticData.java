@@ -0,0 +1,177 @@
+package com.example.movie.review.analyser.benchmark;
+
+import com.example.movie.review.analyser.model.ReviewAggregate;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/** Reproducible (seeded) warehouse data of any size, written straight into the tables or into a workbook. */
+final class SyntheticData {
+
+    static final long SEED = 42;
+    static final int CREDITS_PER_MOVIE = 10;
+    static final int SIMILAR_PER_MOVIE = 5;
+    static final int REVIEWS_PER_MOVIE = 2;
+
+    private static final String[] WORDS = {
+        "night", "city", "heat", "dark", "return", "last", "star", "river", "ghost", "king", "summer", "lost",
+        "iron", "silent", "blue", "wild", "secret", "storm", "dream", "broken", "golden", "shadow", "winter", "empire",
+        "love", "war", "house", "road", "fire", "moon", "island", "edge", "game", "heart", "crown", "garden"
+    };
+    private static final String[] REVIEW_PHRASES = {
+        "A wonderful film with a moving story.", "The plot was predictable and the acting was flat.",
+        "Beautifully shot, although the pacing drags in the middle.", "I did not enjoy it at all.",
+        "An average movie that is fine for a quiet evening.", "One of the best performances of the decade!",
+        "The dialogue felt forced and the ending made no sense.", "Fun, light and surprisingly clever."
+    };
+
+    private SyntheticData() {
+    }
+
+    static String title(Random random) {
+        int words = 1 + random.nextInt(3);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) title.append(' ');
+            String word = WORDS[random.nextInt(WORDS.length)];
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        if (random.nextInt(4) == 0) title.append(' ').append(2 + random.nextInt(3));
+        return title.toString();
+    }
+
+    static String reviewText(Random random) {
+        return REVIEW_PHRASES[random.nextInt(REVIEW_PHRASES.length)] + " " + REVIEW_PHRASES[random.nextInt(REVIEW_PHRASES.length)];
+    }
+
+    /** Search terms that occur in the generated titles. */
+    static String[] searchQueries() {
+        return WORDS.clone();
+    }
+
+    /** Fills movie, person, crew_credit, similar_movie and external_review; film ids are 1..movies. */
+    static void populate(JdbcTemplate jdbcTemplate, int movies) {
+        Random random = new Random(SEED);
+        int people = Math.max(1, movies / 2);
+        try (Inserter insert = new Inserter(jdbcTemplate, "INSERT INTO movie (filmid, title, overview, poster_path, release_date, vote_average, vote_count) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= movies; id++) {
+                insert.add(id, title(random), "Overview of film " + id, "/poster" + id + ".jpg",
+                    (1950 + random.nextInt(75)) + "-01-01", random.nextInt(100) / 10.0, random.nextInt(20_000));
+            }
+        }
+        try (Inserter insert = new Inserter(jdbcTemplate, "INSERT INTO person (personid, name, profile_path) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= people; id++) insert.add(id, "Person " + id, "/profile" + id + ".jpg");
+        }
+        try (Inserter insert = new Inserter(jdbcTemplate, "INSERT INTO crew_credit (filmid, credit_order, personid, character_name) VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= movies; id++) {
+                for (int c = 0; c < CREDITS_PER_MOVIE; c++) insert.add(id, c, 1 + random.nextInt(people), "Character " + c);
+            }
+        }
+        try (Inserter insert = new Inserter(jdbcTemplate, "INSERT INTO similar_movie (filmid, similarity_rank, similar_filmid) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= movies; id++) {
+                Set<Integer> similar = new LinkedHashSet<>(); // (filmid, similar_filmid) is the key
+                while (similar.size() < Math.min(SIMILAR_PER_MOVIE, movies)) similar.add(1 + random.nextInt(movies));
+                int rank = 0;
+                for (int similarId : similar) insert.add(id, rank++, similarId);
+            }
+        }
+        try (Inserter insert = new Inserter(jdbcTemplate, "INSERT INTO external_review (filmid, author, content, sentiment) VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= movies; id++) {
+                for (int r = 0; r < REVIEWS_PER_MOVIE; r++) insert.add(id, "critic" + r, reviewText(random), random.nextBoolean() ? "Positive" : "Negative");
+            }
+        }
+    }
+
+    /** Inserts {@code count} user reviews of one title (the aggregates are built by ReviewService.rebuildAggregates). */
+    static void populateReviews(JdbcTemplate jdbcTemplate, String title, int count) {
+        Random random = new Random(SEED);
+        String[] labels = {"Positive", "Negative", "Neutral"};
+        try (Inserter insert = new Inserter(jdbcTemplate, "INSERT INTO review (movie_title, movie_title_key, review_text, sentiment, rating) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                insert.add(title, ReviewAggregate.keyOf(title), reviewText(random), labels[random.nextInt(3)], 1 + random.nextInt(10));
+            }
+        }
+    }
+
+    /** Writes a MOVIE-shaped workbook with shared strings, like the real exports. */
+    static void writeMovieWorkbook(Path file, int rows) throws IOException {
+        Random random = new Random(SEED);
+        String[] header = {"ID", "FILMID", "TITLE", "OVERVIEW", "POSTER_PATH", "RELEASE_DATE", "VOTE_AVERAGE", "VOTE_COUNT"};
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(new XSSFWorkbook(), 1000, true, true);
+             OutputStream out = Files.newOutputStream(file)) {
+            var sheet = workbook.createSheet("MOVIE");
+            Row headerRow = sheet.createRow(0);
+            for (int c = 0; c < header.length; c++) headerRow.createCell(c).setCellValue(header[c]);
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(r);
+                row.createCell(1).setCellValue(r);
+                row.createCell(2).setCellValue(title(random));
+                row.createCell(3).setCellValue(reviewText(random));
+                if (random.nextInt(10) > 0) row.createCell(4).setCellValue("/poster" + r + ".jpg"); // some cells empty
+                row.createCell(5).setCellValue((1950 + random.nextInt(75)) + "-01-01");
+                row.createCell(6).setCellValue(random.nextInt(100) / 10.0);
+                row.createCell(7).setCellValue(random.nextInt(20_000));
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+    }
+
+    /** Writes a CREW_CREDIT-shaped workbook: {@code rows} credits, {@link #CREDITS_PER_MOVIE} per film, listed film by film. */
+    static void writeCreditWorkbook(Path file, int rows) throws IOException {
+        Random random = new Random(SEED);
+        int people = Math.max(1, rows / CREDITS_PER_MOVIE / 2);
+        String[] header = {"ID", "FILMID", "PERSONID", "CHARACTER"};
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(new XSSFWorkbook(), 1000, true, true);
+             OutputStream out = Files.newOutputStream(file)) {
+            var sheet = workbook.createSheet("CREW_CREDIT");
+            Row headerRow = sheet.createRow(0);
+            for (int c = 0; c < header.length; c++) headerRow.createCell(c).setCellValue(header[c]);
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(r);
+                row.createCell(1).setCellValue(1 + (r - 1) / CREDITS_PER_MOVIE);
+                row.createCell(2).setCellValue(1 + random.nextInt(people));
+                row.createCell(3).setCellValue("Character " + (r - 1) % CREDITS_PER_MOVIE);
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+    }
+
+    // JDBC batch insert in chunks, like the warehouse loader
+    private static final class Inserter implements AutoCloseable {
+        private final JdbcTemplate jdbcTemplate;
+        private final String sql;
+        private List<Object[]> rows = new ArrayList<>();
+
+        Inserter(JdbcTemplate jdbcTemplate, String sql) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == 5000) close();
+        }
+
+        @Override
+        public void close() {
+            if (rows.isEmpty()) return;
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.movie.review.analyser.benchmark;
+
+import com.example.movie.review.analyser.loader.LoadStats;
+import com.example.movie.review.analyser.loader.SheetHeader;
+import com.example.movie.review.analyser.loader.SheetLoad;
+import com.example.movie.review.analyser.loader.WarehouseLoader;
+import com.example.movie.review.analyser.loader.XlsxSheetParser;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Rows per second through the whole warehouse loader (parse -> bounded queue -> JDBC batch
+ * insert -> checkpoint) into a fresh in-memory database, for a MOVIE- and a CREW_CREDIT-shaped
+ * workbook of {@code rows} rows each. Every invocation starts from empty tables and checkpoints.
+ * The "rows" counter in the results is the rows/sec figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class WarehouseLoadBenchmark {
+
+    // The statements DataInitializer uses for these sheets
+    private static final String MOVIE_INSERT = "INSERT INTO movie (filmid, title, overview, poster_path, release_date, vote_average, vote_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String CREW_CREDIT_INSERT = "MERGE INTO crew_credit t USING (VALUES (?, ?, ?, ?)) s (filmid, credit_order, personid, character_name) "
+        + "ON t.filmid = s.filmid AND t.personid = s.personid AND t.character_name = s.character_name "
+        + "WHEN NOT MATCHED THEN INSERT (filmid, credit_order, personid, character_name) VALUES (s.filmid, s.credit_order, s.personid, s.character_name)";
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"4"})
+    public int writerThreads;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private WarehouseLoader loader;
+    private Path movieWorkbook;
+    private Path creditWorkbook;
+    private List<SheetLoad> loads;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long rows;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("loader.writer-threads=" + writerThreads, "loader.progress-interval-seconds=3600");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        loader = context.getBean(WarehouseLoader.class);
+        movieWorkbook = Files.createTempFile("load-benchmark-movie", ".xlsx");
+        creditWorkbook = Files.createTempFile("load-benchmark-credit", ".xlsx");
+        SyntheticData.writeMovieWorkbook(movieWorkbook, rows);
+        SyntheticData.writeCreditWorkbook(creditWorkbook, rows);
+        loads = List.of(
+            new SheetLoad(movieWorkbook.toString(), MOVIE_INSERT, WarehouseLoadBenchmark::mapMovie),
+            new SheetLoad(creditWorkbook.toString(), CREW_CREDIT_INSERT, WarehouseLoadBenchmark::mapCrewCredit).groupedBy("FILMID"));
+    }
+
+    // Untimed: every load starts from an empty database, as a first start does
+    @Setup(Level.Invocation)
+    public void emptyTables() {
+        for (String table : new String[] {"movie", "crew_credit", "load_checkpoint"}) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        context.close();
+        Files.deleteIfExists(movieWorkbook);
+        Files.deleteIfExists(creditWorkbook);
+    }
+
+    @Benchmark
+    public void loadWorkbooks(Counters counters) throws Exception {
+        for (LoadStats stats : loader.load(loads, WarehouseLoadBenchmark::parseFile)) {
+            counters.rows += stats.getWrittenRows();
+        }
+    }
+
+    // The workbooks are temp files rather than classpath resources
+    private static void parseFile(String file, Consumer<String[]> header, Consumer<List<String[]>> batches) throws Exception {
+        try (InputStream in = Files.newInputStream(Path.of(file)); OPCPackage pkg = OPCPackage.open(in)) {
+            XlsxSheetParser.parse(pkg, header, batches);
+        }
+    }
+
+    private static Object[] mapMovie(String[] row, SheetHeader header, int rowNumber) {
+        return new Object[] {
+            (int) Double.parseDouble(SheetHeader.value(row, header.index("FILMID"))),
+            SheetHeader.value(row, header.index("TITLE")),
+            SheetHeader.value(row, header.index("OVERVIEW")),
+            SheetHeader.value(row, header.index("POSTER_PATH")),
+            SheetHeader.value(row, header.index("RELEASE_DATE")),
+            Double.parseDouble(SheetHeader.value(row, header.index("VOTE_AVERAGE"))),
+            (int) Double.parseDouble(SheetHeader.value(row, header.index("VOTE_COUNT")))
+        };
+    }
+
+    private static Object[] mapCrewCredit(String[] row, SheetHeader header, int rowNumber) {
+        return new Object[] {
+            (int) Double.parseDouble(SheetHeader.value(row, header.index("FILMID"))),
+            rowNumber,
+            (int) Double.parseDouble(SheetHeader.value(row, header.index("PERSONID"))),
+            SheetHeader.value(row, header.index("CHARACTER"))
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.movie.review.analyser.loader;
+
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// The SAX handler DataInitializer used before SheetRowHandler, kept as the benchmark baseline
+class LegacySheetHandler extends DefaultHandler {
+    private final SharedStringsTable sst;
+    private final Consumer<String[]> headerProcessor;
+    private final Consumer<List<String[]>> batchProcessor;
+    private String lastContents;
+    private boolean nextIsString;
+    private List<String> currentRow = new ArrayList<>();
+    private List<String[]> batch = new ArrayList<>();
+    private final int BATCH_SIZE = 2000;
+    private long rowCount = 0;
+
+    LegacySheetHandler(SharedStringsTable sst, Consumer<String[]> headerProcessor, Consumer<List<String[]>> batchProcessor) {
+        this.sst = sst;
+        this.headerProcessor = headerProcessor;
+        this.batchProcessor = batchProcessor;
+    }
+
+    public void startElement(String uri, String localName, String name, Attributes attributes) {
+        if (name.equals("c")) { // "c" is a cell
+            String cellType = attributes.getValue("t");
+            nextIsString = (cellType != null && cellType.equals("s"));
+        }
+        lastContents = "";
+    }
+
+    public void endElement(String uri, String localName, String name) {
+        if (nextIsString) {
+            int idx = Integer.parseInt(lastContents);
+            lastContents = new XSSFRichTextString(sst.getItemAt(idx).getString()).toString();
+            nextIsString = false;
+        }
+        if (name.equals("v")) { // "v" is the cell value
+            currentRow.add(lastContents);
+        } else if (name.equals("row")) { // "row" is the end of a row
+            if (rowCount == 0) { // Header row
+                headerProcessor.accept(currentRow.toArray(new String[0]));
+            } else {
+                batch.add(currentRow.toArray(new String[0]));
+                if (batch.size() >= BATCH_SIZE) {
+                    batchProcessor.accept(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            currentRow.clear();
+            rowCount++;
+        }
+    }
+
+    public void characters(char[] ch, int start, int length) {
+        lastContents += new String(ch, start, length);
+    }
+
+    @Override
+    public void endDocument() {
+        if (!batch.isEmpty()) {
+            batchProcessor.accept(batch);
+        }
+    }
+}
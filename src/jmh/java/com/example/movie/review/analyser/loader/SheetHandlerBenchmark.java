@@ -0,0 +1,79 @@
+package com.example.movie.review.analyser.loader;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of the legacy SAX handler against {@link SheetRowHandler} on the bundled
+ * workbooks. The sheet XML is unzipped once in setup, so only the handler work is measured;
+ * the "WithSharedStrings" variant also pays for resolving the shared strings up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SheetHandlerBenchmark {
+
+    @Param({"data/COMPANY.xlsx", "data/COLLECTION.xlsx"})
+    public String file;
+
+    private OPCPackage pkg;
+    private SharedStringsTable sharedStringsTable;
+    private String[] sharedStrings;
+    private byte[] sheetXml;
+
+    @Setup
+    public void setUp() throws Exception {
+        byte[] workbook;
+        try (InputStream in = new ClassPathResource(file).getInputStream()) {
+            workbook = in.readAllBytes();
+        }
+        pkg = OPCPackage.open(new ByteArrayInputStream(workbook));
+        XSSFReader reader = new XSSFReader(pkg);
+        sharedStringsTable = (SharedStringsTable) reader.getSharedStringsTable();
+        sharedStrings = XlsxSheetParser.sharedStrings(pkg);
+        try (InputStream sheet = reader.getSheetsData().next()) {
+            sheetXml = sheet.readAllBytes();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pkg.revert();
+    }
+
+    @Benchmark
+    public void legacyHandler(Blackhole blackhole) throws Exception {
+        parse(new LegacySheetHandler(sharedStringsTable, blackhole::consume, blackhole::consume));
+    }
+
+    @Benchmark
+    public void sheetRowHandler(Blackhole blackhole) throws Exception {
+        parse(new SheetRowHandler(sharedStrings, blackhole::consume, blackhole::consume));
+    }
+
+    @Benchmark
+    public void sheetRowHandlerWithSharedStrings(Blackhole blackhole) throws Exception {
+        parse(new SheetRowHandler(XlsxSheetParser.sharedStrings(pkg), blackhole::consume, blackhole::consume));
+    }
+
+    private void parse(ContentHandler handler) throws Exception {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(handler);
+        parser.parse(new InputSource(new ByteArrayInputStream(sheetXml)));
+    }
+}
@@ -1,28 +1,32 @@
 package com.example.movie.review.analyser;
 
+import com.example.movie.review.analyser.loader.LoadCheckpointStore;
+import com.example.movie.review.analyser.loader.SheetHeader;
+import com.example.movie.review.analyser.loader.SheetLoad;
+import com.example.movie.review.analyser.loader.WarehouseLoadLock;
+import com.example.movie.review.analyser.loader.WarehouseLoadedEvent;
+import com.example.movie.review.analyser.loader.WarehouseLoader;
+import com.example.movie.review.analyser.loader.WarehouseSnapshot;
+import com.example.movie.review.analyser.loader.XlsxSheetParser;
 import com.example.movie.review.analyser.model.*;
 import com.example.movie.review.analyser.repository.*;
+import com.example.movie.review.analyser.service.MovieTitleIndex;
 import com.example.movie.review.analyser.service.SentimentAnalysisService;
-import org.apache.poi.openxml4j.opc.OPCPackage;
-import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.model.SharedStringsTable;
-import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import com.example.movie.review.analyser.service.SentimentRescoredEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.xml.sax.Attributes;
-import org.xml.sax.ContentHandler;
-import org.xml.sax.InputSource;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.DefaultHandler;
-import org.xml.sax.helpers.XMLReaderFactory;
 import org.apache.poi.util.IOUtils;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Objects;
 
 @Component
 @Profile("!test") 
@@ -30,135 +34,201 @@ public class DataInitializer implements CommandLineRunner {
 
     // --- All Autowired Repositories ---
     @Autowired private MovieRepository movieRepository;
-    @Autowired private PersonRepository personRepository;
-    @Autowired private CrewCreditRepository crewCreditRepository;
-    @Autowired private ExternalReviewRepository externalReviewRepository;
-    @Autowired private SimilarMovieRepository similarMovieRepository;
     @Autowired private SentimentAnalysisService sentimentAnalysisService;
-  
+    @Autowired private MovieTitleIndex movieTitleIndex;
+    @Autowired private WarehouseLoader warehouseLoader;
+    @Autowired private LoadCheckpointStore checkpointStore;
+    @Autowired private WarehouseSnapshot warehouseSnapshot;
+    @Autowired private XlsxSheetParser xlsxSheetParser;
+    @Autowired private WarehouseLoadLock loadLock;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Value("${snapshot.enabled:true}") private boolean snapshotEnabled;
+    @Value("${snapshot.file:./data/warehouse.snap}") private String snapshotFile;
+
+    // Set by run() when the snapshot should be (re)written; the export starts once the application is ready
+    private volatile List<String> snapshotSources;
+    private volatile boolean exportPending;
+
+    private static final String MOVIE_SHEET = "data/MOVIE.xlsx";
+
+    // --- Plain JDBC inserts (IDENTITY entities defeat Hibernate batching) ---
+    private static final String MOVIE_INSERT = "INSERT INTO movie (filmid, title, overview, poster_path, release_date, vote_average, vote_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String PERSON_INSERT = "INSERT INTO person (personid, name, profile_path) VALUES (?, ?, ?)";
+    // Credits and links are keyed on their natural columns; a row repeated in the sheet keeps its first position
+    private static final String CREW_CREDIT_INSERT = "MERGE INTO crew_credit t USING (VALUES (?, ?, ?, ?)) s (filmid, credit_order, personid, character_name) "
+        + "ON t.filmid = s.filmid AND t.personid = s.personid AND t.character_name = s.character_name "
+        + "WHEN NOT MATCHED THEN INSERT (filmid, credit_order, personid, character_name) VALUES (s.filmid, s.credit_order, s.personid, s.character_name)";
+    private static final String EXTERNAL_REVIEW_INSERT = "INSERT INTO external_review (filmid, author, content, sentiment) VALUES (?, ?, ?, ?)";
+    private static final String SIMILAR_MOVIE_INSERT = "MERGE INTO similar_movie t USING (VALUES (?, ?, ?)) s (filmid, similarity_rank, similar_filmid) "
+        + "ON t.filmid = s.filmid AND t.similar_filmid = s.similar_filmid "
+        + "WHEN NOT MATCHED THEN INSERT (filmid, similarity_rank, similar_filmid) VALUES (s.filmid, s.similarity_rank, s.similar_filmid)";
 
     @Override
     public void run(String... args) throws Exception {
-    	IOUtils.setByteArrayMaxOverride(900_000_000);
-        if (movieRepository.count() > 0) {
-            System.out.println("Local H2 database already populated. Skipping data load.");
+        List<SheetLoad> loads = List.of(
+            new SheetLoad(MOVIE_SHEET, MOVIE_INSERT, this::mapMovie, null, this::indexMovies),
+            new SheetLoad("data/PERSON.xlsx", PERSON_INSERT, this::mapPerson),
+            new SheetLoad("data/CREW_CREDIT.xlsx", CREW_CREDIT_INSERT, this::mapCrewCredit).groupedBy("FILMID", "MOVIEID"),
+            new SheetLoad("data/MOVIE_REVIEW.xlsx", EXTERNAL_REVIEW_INSERT, this::mapExternalReview, this::scoreExternalReviews, null),
+            new SheetLoad("data/MOVIE_SIMILAR.xlsx", SIMILAR_MOVIE_INSERT, this::mapSimilarMovie).groupedBy("FILMID", "MOVIEID")
+        );
+        List<String> sources = loads.stream().map(SheetLoad::file).toList();
+        Path snapshot = Path.of(snapshotFile);
+        snapshotSources = sources;
+
+        checkpointStore.ensureTable();
+        // Runs under the startup lock: with a shared database the first node loads, the rest find the data ready
+        if (loadLock.isLoaded()) {
+            System.out.println("Data warehouse already loaded (version " + loadLock.getVersion() + "). Skipping data load.");
+            exportPending = !Files.exists(snapshot);
             return;
         }
-        System.out.println("Local H2 database is empty. Starting high-performance data warehouse load...");
-
-        // Process files using the efficient streaming method
-        processSheet("data/MOVIE.xlsx", this::saveMoviesInBatch);
-        processSheet("data/PERSON.xlsx", this::savePersonsInBatch);
-        processSheet("data/CREW_CREDIT.xlsx", this::saveCrewCreditsInBatch);
-        processSheet("data/MOVIE_REVIEW.xlsx", this::saveExternalReviewsInBatch);
-        processSheet("data/MOVIE_SIMILAR.xlsx", this::saveSimilarMoviesInBatch);
+        loadLock.markLoaded(loadWarehouse(loads, sources, snapshot));
+    }
+
+    // Returns false when the data was already there
+    private boolean loadWarehouse(List<SheetLoad> loads, List<String> sources, Path snapshot) throws Exception {
+        if (checkpointStore.isComplete(LoadCheckpointStore.WAREHOUSE)) {
+            System.out.println("Database already populated. Skipping data load.");
+            exportPending = !Files.exists(snapshot);
+            return false;
+        }
+        if (!checkpointStore.hasAny(sources) && movieRepository.count() > 0) {
+            // Loaded before checkpoints existed, by the old loader that only wrote movie
+            System.out.println("Movies already loaded. Loading the remaining data warehouse sheets...");
+            checkpointStore.markComplete(MOVIE_SHEET);
+        } else if (checkpointStore.hasAny(sources)) {
+            System.out.println("Resuming interrupted data warehouse load...");
+        } else if (snapshotEnabled && warehouseSnapshot.importIfValid(snapshot, sources, sentimentAnalysisService.getModelVersion())) {
+            checkpointStore.markComplete(LoadCheckpointStore.WAREHOUSE);
+            eventPublisher.publishEvent(new WarehouseLoadedEvent(true));
+            return true;
+        } else {
+            System.out.println("Database is empty. Starting high-performance data warehouse load...");
+        }
+
+        // All workbooks are parsed concurrently and written by a shared pool of JDBC batch writers.
+        // POI buffers whole zip entries, so the XLSX path needs the raised byte array limit.
+        IOUtils.setByteArrayMaxOverride(900_000_000);
+        warehouseLoader.load(loads, xlsxSheetParser);
+        checkpointStore.markComplete(LoadCheckpointStore.WAREHOUSE);
+        eventPublisher.publishEvent(new WarehouseLoadedEvent(false));
+        exportPending = true;
         
         System.out.println("\n******************************************");
         System.out.println("DATA WAREHOUSE LOAD COMPLETE!");
         System.out.println("******************************************");
+        return true;
     }
 
-    // --- Batch Saving Logic ---
-    private void saveMoviesInBatch(List<String[]> batch) {
-        List<Movie> movies = new ArrayList<>();
-        for (String[] row : batch) {
-            try {
-                Movie movie = new Movie();
-                movie.setFilmid(Integer.parseInt(row[1]));
-                movie.setTitle(row[2]);
-                movie.setOverview(row[10]);
-                movie.setPosterPath(row[12]);
-                movie.setReleaseDate(row[13]);
-                movie.setVoteAverage(Double.parseDouble(row[16]));
-                movie.setVoteCount(Integer.parseInt(row[17]));
-                movies.add(movie);
-            } catch (Exception e) {/* Skip row on parse error */}
-        }
-        if (!movies.isEmpty()) movieRepository.saveAll(movies);
+    // Written in the background so a missing snapshot does not hold up startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void exportSnapshotIfPending() {
+        if (!snapshotEnabled || !exportPending) return;
+        exportPending = false;
+        warehouseSnapshot.exportInBackground(Path.of(snapshotFile), snapshotSources, sentimentAnalysisService.getModelVersion());
     }
-    // ... (Similar batch saving methods for Person, CrewCredit, etc.)
-
-    // --- High-Performance Streaming XLSX Processor ---
-    public void processSheet(String filePath, Consumer<List<String[]>> batchProcessor) throws Exception {
-        System.out.println("Streaming " + filePath + "...");
-        try (OPCPackage pkg = OPCPackage.open(new ClassPathResource(filePath).getInputStream())) {
-            XSSFReader r = new XSSFReader(pkg);
-            SharedStringsTable sst = (SharedStringsTable) r.getSharedStringsTable();
-            XMLReader parser = XMLReaderFactory.createXMLReader();
-            ContentHandler handler = new SheetHandler(sst, batchProcessor);
-            parser.setContentHandler(handler);
-
-            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) r.getSheetsData();
-            if (sheets.hasNext()) { // Process only the first sheet
-                try (InputStream sheetStream = sheets.next()) {
-                    InputSource sheetSource = new InputSource(sheetStream);
-                    parser.parse(sheetSource);
-                }
-            }
+
+    // Once external reviews carry the new model's labels, the snapshot (recorded with the old model,
+    // or holding the old labels) is replaced
+    @EventListener
+    public void onSentimentRescored(SentimentRescoredEvent event) {
+        if (!snapshotEnabled || snapshotSources == null || !event.table().equals("external_review")) return;
+        Path snapshot = Path.of(snapshotFile);
+        if (event.changed() == 0 && warehouseSnapshot.isCurrent(snapshot, snapshotSources, event.modelVersion())) return;
+        warehouseSnapshot.exportInBackground(snapshot, snapshotSources, event.modelVersion());
+    }
+
+    // --- Row Mapping Logic (returns JDBC arguments, or null to skip the row) ---
+    private Object[] mapMovie(String[] row, SheetHeader header, int rowNumber) {
+        try {
+            return new Object[] {
+                Integer.parseInt(row[1]), clip(row[2], 255), clip(row[10], 4000), row[12], row[13],
+                Double.parseDouble(row[16]), Integer.parseInt(row[17])
+            };
+        } catch (Exception e) {
+            return null; // Skip row on parse error
         }
-        System.out.println("-> Finished streaming " + filePath);
     }
 
-    // Inner class to handle the XML parsing events from the sheet
-    private static class SheetHandler extends DefaultHandler {
-        private final SharedStringsTable sst;
-        private final Consumer<List<String[]>> batchProcessor;
-        private String lastContents;
-        private boolean nextIsString;
-        private List<String> currentRow = new ArrayList<>();
-        private List<String[]> batch = new ArrayList<>();
-        private final int BATCH_SIZE = 2000;
-        private long rowCount = 0;
-
-        private SheetHandler(SharedStringsTable sst, Consumer<List<String[]>> batchProcessor) {
-            this.sst = sst;
-            this.batchProcessor = batchProcessor;
+    // Keeps the title index in sync; a no-op until the index has had its first full build
+    private void indexMovies(List<Object[]> rows) {
+        if (!movieTitleIndex.isReady()) return;
+        List<Movie> movies = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Movie movie = new Movie();
+            movie.setFilmid((Integer) row[0]);
+            movie.setTitle((String) row[1]);
+            movie.setVoteCount((Integer) row[6]);
+            movies.add(movie);
         }
+        movieTitleIndex.addAll(movies);
+    }
 
-        public void startElement(String uri, String localName, String name, Attributes attributes) {
-            if (name.equals("c")) { // "c" is a cell
-                String cellType = attributes.getValue("t");
-                nextIsString = (cellType != null && cellType.equals("s"));
-            }
-            lastContents = "";
+    // The other sheets are mapped by header name, falling back through the spellings used by the TMDb exports
+    private Object[] mapPerson(String[] row, SheetHeader header, int rowNumber) {
+        try {
+            return new Object[] {
+                Integer.parseInt(SheetHeader.value(row, header.index("PERSONID", "ID"))),
+                clip(SheetHeader.value(row, header.index("NAME")), 255),
+                clip(SheetHeader.value(row, header.index("PROFILE_PATH")), 255)
+            };
+        } catch (Exception e) {
+            return null; // Skip row on parse error
         }
+    }
 
-        public void endElement(String uri, String localName, String name) {
-            if (nextIsString) {
-                int idx = Integer.parseInt(lastContents);
-                lastContents = new XSSFRichTextString(sst.getItemAt(idx).getString()).toString();
-                nextIsString = false;
-            }
-            if (name.equals("v")) { // "v" is the cell value
-                currentRow.add(lastContents);
-            } else if (name.equals("row")) { // "row" is the end of a row
-                if (rowCount > 0) { // Skip header row
-                    batch.add(currentRow.toArray(new String[0]));
-                    if (batch.size() >= BATCH_SIZE) {
-                        batchProcessor.accept(batch);
-                        batch.clear();
-                    }
-                }
-                currentRow.clear();
-                rowCount++;
-            }
+    // The sheet lists each film's credits in billing order; the load numbers rows per film, so rowNumber is the credit order
+    private Object[] mapCrewCredit(String[] row, SheetHeader header, int rowNumber) {
+        try {
+            return new Object[] {
+                Integer.parseInt(SheetHeader.value(row, header.index("FILMID", "MOVIEID"))),
+                rowNumber,
+                Integer.parseInt(SheetHeader.value(row, header.index("PERSONID"))),
+                Objects.requireNonNullElse(clip(SheetHeader.value(row, header.index("CHARACTER", "CHARACTER_NAME", "ROLE", "JOB")), 255), "")
+            };
+        } catch (Exception e) {
+            return null; // Skip row on parse error
         }
+    }
 
-        public void characters(char[] ch, int start, int length) {
-            lastContents += new String(ch, start, length);
+    // Sentiment is left null here and filled in by scoreExternalReviews on the loader's scoring pool
+    private Object[] mapExternalReview(String[] row, SheetHeader header, int rowNumber) {
+        try {
+            return new Object[] {
+                Integer.parseInt(SheetHeader.value(row, header.index("FILMID", "MOVIEID"))),
+                clip(SheetHeader.value(row, header.index("AUTHOR", "AUTHOR_NAME", "USERNAME")), 255),
+                clip(SheetHeader.value(row, header.index("CONTENT", "REVIEW", "TEXT")), 4000),
+                null
+            };
+        } catch (Exception e) {
+            return null; // Skip row on parse error
         }
+    }
 
-        @Override
-        public void endDocument() {
-            if (!batch.isEmpty()) { // Process any remaining rows
-                batchProcessor.accept(batch);
-            }
+    // Likewise a film's links are listed most similar first, and rowNumber is the rank among them
+    private Object[] mapSimilarMovie(String[] row, SheetHeader header, int rowNumber) {
+        try {
+            return new Object[] {
+                Integer.parseInt(SheetHeader.value(row, header.index("FILMID", "MOVIEID"))),
+                rowNumber,
+                Integer.parseInt(SheetHeader.value(row, header.index("SIMILAR_FILMID", "SIMILAR_MOVIEID", "SIMILARID")))
+            };
+        } catch (Exception e) {
+            return null; // Skip row on parse error
         }
     }
-    
-    // --- The other batch saving methods ---
-    private void savePersonsInBatch(List<String[]> batch) { /* ... similar logic to saveMoviesInBatch ... */ }
-    private void saveCrewCreditsInBatch(List<String[]> batch) { /* ... similar logic to saveMoviesInBatch ... */ }
-    private void saveExternalReviewsInBatch(List<String[]> batch) { /* ... similar logic to saveMoviesInBatch ... */ }
-    private void saveSimilarMoviesInBatch(List<String[]> batch) { /* ... similar logic to saveMoviesInBatch ... */ }
+
+    // Pre-computes ExternalReview.sentiment at ingest so the read path never runs CoreNLP
+    private void scoreExternalReviews(List<Object[]> rows) {
+        List<String> texts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) texts.add((String) row[2]);
+        List<String> labels = sentimentAnalysisService.analyzeBatch(texts);
+        for (int i = 0; i < rows.size(); i++) rows.get(i)[3] = labels.get(i);
+    }
+
+    private static String clip(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.movie.review.analyser;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Warns at startup when a hot lookup column has no index leading with it. ddl-auto=update adds
+ * missing indexes to existing tables but never rewrites their primary keys, so databases created
+ * by older versions can silently fall back to full table scans.
+ */
+@Component
+public class SchemaIndexCheck {
+
+    // table -> column every per-request lookup on that table filters by
+    private static final Map<String, String> EXPECTED = Map.of(
+        "movie", "filmid",
+        "person", "personid",
+        "crew_credit", "filmid",
+        "external_review", "filmid",
+        "similar_movie", "filmid",
+        "review", "movie_title_key",
+        "review_aggregate", "title_key"
+    );
+
+    @Autowired private DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            List<String> missing = new ArrayList<>();
+            EXPECTED.forEach((table, column) -> {
+                try {
+                    if (!hasLeadingIndex(metaData, identifier(metaData, table), identifier(metaData, column))) {
+                        missing.add(table + "(" + column + ")");
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            if (missing.isEmpty()) {
+                System.out.println("Schema index check passed for " + EXPECTED.size() + " tables.");
+            } else {
+                System.out.println("WARNING: no index leading with " + String.join(", ", missing)
+                    + ". Lookups on these columns scan the whole table; recreate the database to pick up the current schema.");
+            }
+        } catch (SQLException | IllegalStateException e) {
+            System.out.println("Schema index check skipped: " + e.getMessage());
+        }
+    }
+
+    private static boolean hasLeadingIndex(DatabaseMetaData metaData, String table, String column) throws SQLException {
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, table, false, true)) {
+            while (indexes.next()) {
+                if (indexes.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) return name.toUpperCase(Locale.ROOT);
+        if (metaData.storesLowerCaseIdentifiers()) return name.toLowerCase(Locale.ROOT);
+        return name;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.movie.review.analyser.cache;
+
+import com.example.movie.review.analyser.dto.CacheStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe LRU cache with optional time-to-live and hit/miss/eviction counters.
+ * Keys are spread over independently locked segments so concurrent readers rarely contend;
+ * each segment evicts its own least recently used entry once it is over its share of the size.
+ */
+public class LruCache<K, V> {
+
+    private final String name;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    /** @param ttlMillis entry lifetime, or 0 for no expiry */
+    @SuppressWarnings("unchecked")
+    public LruCache(String name, int maximumSize, long ttlMillis) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        int segmentCount = Math.max(1, Math.min(16, maximumSize / 64));
+        this.segments = new Segment[segmentCount];
+        int perSegment = (maximumSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(perSegment, evictions);
+        }
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry != null && (ttlNanos == 0 || System.nanoTime() - entry.createdNanos < ttlNanos)) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) segment.remove(key); // expired
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new Entry<>(value, System.nanoTime()));
+        }
+        puts.increment();
+    }
+
+    /** Returns the cached value, loading it outside the lock on a miss; null results are not cached. */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) put(key, value);
+        }
+        return value;
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /** Visits a point-in-time copy of each segment (used for persisting the cache). */
+    public void forEach(BiConsumer<K, V> action) {
+        for (Segment<K, V> segment : segments) {
+            Map<K, Entry<V>> copy;
+            synchronized (segment) {
+                copy = new LinkedHashMap<>(segment);
+            }
+            copy.forEach((key, entry) -> action.accept(key, entry.value));
+        }
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(name, size(), maximumSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[(h & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private record Entry<V>(V value, long createdNanos) {}
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true); // access order
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+}
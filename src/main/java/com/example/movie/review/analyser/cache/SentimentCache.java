@@ -0,0 +1,123 @@
+package com.example.movie.review.analyser.cache;
+
+import com.example.movie.review.analyser.dto.CacheStats;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Sentiment labels keyed by a 128-bit hash of the normalized review text, so repeated or
+ * trivially different texts ("Great movie!", "great  movie!!") cost a hash lookup instead of a parse.
+ * The cache can be persisted to a file on shutdown and reloaded on the next start; the file records
+ * the sentiment model version it was scored with and is ignored once the model changes.
+ */
+public class SentimentCache {
+
+    private static final int FILE_MAGIC = 0x53454E54; // "SENT"
+    private static final int FILE_VERSION = 3; // 3: model version in the header
+    private static final List<String> LABELS = List.of("Negative", "Neutral", "Positive");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern REPEATED_PUNCTUATION = Pattern.compile("(\\p{Punct})\\1+");
+
+    private final LruCache<TextHash, String> cache;
+    private final String modelVersion;
+
+    public SentimentCache(int maximumSize, long ttlMillis, String modelVersion) {
+        this.cache = new LruCache<>("sentiment", maximumSize, ttlMillis);
+        this.modelVersion = modelVersion;
+    }
+
+    public String get(TextHash key) {
+        return cache.get(key);
+    }
+
+    public void put(TextHash key, String label) {
+        if (LABELS.contains(label)) cache.put(key, label);
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    public LruCache<TextHash, String> getCache() {
+        return cache;
+    }
+
+    public static TextHash keyOf(String text) {
+        String normalized = normalize(text);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new TextHash(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String normalize(String text) {
+        String collapsed = WHITESPACE.matcher(text.trim()).replaceAll(" ");
+        return REPEATED_PUNCTUATION.matcher(collapsed).replaceAll("$1").toLowerCase(Locale.ROOT);
+    }
+
+    // --- Warm-start file ---
+
+    public int load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                System.out.println("Ignoring sentiment cache file with unknown format: " + file);
+                return 0;
+            }
+            String fileModel = in.readUTF();
+            if (!fileModel.equals(modelVersion)) {
+                System.out.println("Ignoring sentiment cache file scored with model " + fileModel + " (now " + modelVersion + ")");
+                return 0;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                TextHash key = new TextHash(in.readLong(), in.readLong());
+                cache.put(key, LABELS.get(in.readByte()));
+            }
+            return count;
+        }
+    }
+
+    public int save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int[] count = {0};
+        try (DataOutputStream body = new DataOutputStream(bytes)) {
+            cache.forEach((key, label) -> {
+                try {
+                    body.writeLong(key.high());
+                    body.writeLong(key.low());
+                    body.writeByte(LABELS.indexOf(label));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeUTF(modelVersion);
+            out.writeInt(count[0]);
+            bytes.writeTo(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    public record TextHash(long high, long low) {}
+}
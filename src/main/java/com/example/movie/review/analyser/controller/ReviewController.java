@@ -1,19 +1,34 @@
 package com.example.movie.review.analyser.controller;
 
+import com.example.movie.review.analyser.dto.BulkImportResult;
 import com.example.movie.review.analyser.dto.CastMember;
+import com.example.movie.review.analyser.dto.MovieBundle;
+import com.example.movie.review.analyser.dto.MovieSummary;
+import com.example.movie.review.analyser.dto.RescoreProgress;
 import com.example.movie.review.analyser.dto.ReviewStats;
 import com.example.movie.review.analyser.model.ExternalReview;
 import com.example.movie.review.analyser.model.Movie;
 import com.example.movie.review.analyser.model.Review;
 import com.example.movie.review.analyser.repository.ReviewRepository;
 import com.example.movie.review.analyser.service.LocalMovieDataService;
+import com.example.movie.review.analyser.service.MovieBundleService;
+import com.example.movie.review.analyser.service.ReviewBulkImporter;
+import com.example.movie.review.analyser.service.ReviewRescoringJob;
+import com.example.movie.review.analyser.service.ReviewScoringWorker;
+import com.example.movie.review.analyser.service.ReviewService;
 import com.example.movie.review.analyser.service.SentimentAnalysisService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -23,6 +38,13 @@ public class ReviewController {
     @Autowired private ReviewRepository reviewRepository;
     @Autowired private SentimentAnalysisService sentimentAnalysisService;
     @Autowired private LocalMovieDataService localMovieDataService;
+    @Autowired private ReviewScoringWorker reviewScoringWorker;
+    @Autowired private ReviewService reviewService;
+    @Autowired private MovieBundleService movieBundleService;
+    @Autowired private ReviewBulkImporter reviewBulkImporter;
+    @Autowired private ReviewRescoringJob reviewRescoringJob;
+
+    @Value("${reviews.async-scoring:false}") private boolean asyncScoringByDefault;
 
     // --- Movie Data Endpoints ---
 
@@ -46,42 +68,77 @@ public class ReviewController {
         return localMovieDataService.getExternalReviews(movieId);
     }
     
+    // hops > 1 expands to movies similar to the similar movies ("more like this")
     @GetMapping("/movies/{movieId}/similar")
-    public List<Movie> getSimilarMovies(@PathVariable int movieId) {
-        return localMovieDataService.getSimilarMovies(movieId);
+    public List<MovieSummary> getSimilarMovies(@PathVariable int movieId,
+                                               @RequestParam(defaultValue = "1") int hops,
+                                               @RequestParam(defaultValue = "5") int limit) {
+        return localMovieDataService.getSimilarMovies(movieId, hops, limit);
+    }
+
+    // Details, cast, external reviews, similar movies and review stats in one round trip (supports If-None-Match)
+    @GetMapping("/movies/{movieId}/bundle")
+    public ResponseEntity<MovieBundle> getMovieBundle(@PathVariable int movieId, WebRequest request) {
+        MovieBundle bundle = movieBundleService.load(movieId);
+        if (bundle == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = movieBundleService.etag(bundle);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written; the client keeps its copy
+        }
+        return ResponseEntity.ok().eTag(etag).body(bundle);
     }
 
     // --- User Review Endpoints ---
 
+    // With async=true the review is saved as "Pending" and scored in the background; poll GET /reviews/{id}
     @PostMapping("/reviews")
-    public Review createReview(@RequestBody Review review) {
+    public Review createReview(@RequestBody Review review, @RequestParam(required = false) Boolean async) {
+        if (async != null ? async : asyncScoringByDefault) {
+            return reviewScoringWorker.submit(review);
+        }
         String sentiment = sentimentAnalysisService.analyzeSentiment(review.getReviewText());
         review.setSentiment(sentiment);
-        return reviewRepository.save(review);
+        return reviewService.save(review);
+    }
+
+    // Streams an NDJSON (one review object per line) or CSV (header row: movieTitle,reviewText,rating) upload
+    @PostMapping(value = "/reviews/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public BulkImportResult importReviews(InputStream body, @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        return reviewBulkImporter.importReviews(body, contentType);
+    }
+
+    // Re-scores stored reviews with the current sentiment model in the background; GET reports progress
+    @PostMapping("/reviews/rescore")
+    public List<RescoreProgress> rescore(@RequestParam(defaultValue = "review,external_review") List<String> tables) {
+        for (String table : tables) {
+            if (!ReviewRescoringJob.TABLES.contains(table)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown table " + table + ", expected one of " + ReviewRescoringJob.TABLES);
+            }
+        }
+        return reviewRescoringJob.submit(tables);
+    }
+
+    @GetMapping("/reviews/rescore")
+    public List<RescoreProgress> getRescoreProgress() {
+        return reviewRescoringJob.getProgress();
+    }
+
+    @GetMapping("/reviews/{id}")
+    public ResponseEntity<Review> getReview(@PathVariable Long id) {
+        return ResponseEntity.of(reviewRepository.findById(id));
+    }
+
+    @GetMapping("/reviews")
+    public List<Review> getReviews(@RequestParam String title,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(defaultValue = "20") int size) {
+        return reviewService.getReviews(title, page, size);
     }
 
     @GetMapping("/reviews/stats")
     public ReviewStats getReviewStats(@RequestParam String title) {
-        List<Review> reviews = reviewRepository.findByMovieTitleIgnoreCase(title);
-        long total = reviews.size();
-        
-        if (total == 0) {
-            return new ReviewStats(reviews, 0, 0.0, "N/A");
-        }
-        
-        double avgRating = reviews.stream()
-            .mapToDouble(Review::getRating)
-            .average()
-            .orElse(0.0);
-        
-        Map<String, Long> sentimentCounts = reviews.stream()
-            .collect(Collectors.groupingBy(Review::getSentiment, Collectors.counting()));
-        
-        String dominantSentiment = sentimentCounts.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse("Mixed");
-
-        return new ReviewStats(reviews, total, avgRating, dominantSentiment);
+        return reviewService.getStats(title);
     }
-}
\ No newline at end of file
+}
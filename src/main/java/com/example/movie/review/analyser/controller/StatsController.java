@@ -0,0 +1,50 @@
+package com.example.movie.review.analyser.controller;
+
+import com.example.movie.review.analyser.dto.CacheStats;
+import com.example.movie.review.analyser.dto.QueryCountStats;
+import com.example.movie.review.analyser.dto.SearchIndexStats;
+import com.example.movie.review.analyser.dto.SimilarGraphStats;
+import com.example.movie.review.analyser.metrics.QueryCountFilter;
+import com.example.movie.review.analyser.service.LocalMovieDataService;
+import com.example.movie.review.analyser.service.MovieTitleIndex;
+import com.example.movie.review.analyser.service.SentimentAnalysisService;
+import com.example.movie.review.analyser.service.SimilarMovieGraph;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin // Operational statistics for the in-memory structures
+public class StatsController {
+
+    @Autowired private MovieTitleIndex movieTitleIndex;
+    @Autowired private QueryCountFilter queryCountFilter;
+    @Autowired private SentimentAnalysisService sentimentAnalysisService;
+    @Autowired private LocalMovieDataService localMovieDataService;
+    @Autowired private SimilarMovieGraph similarMovieGraph;
+
+    @GetMapping("/search-index")
+    public SearchIndexStats getSearchIndexStats() {
+        return movieTitleIndex.getStats();
+    }
+
+    @GetMapping("/similar-graph")
+    public SimilarGraphStats getSimilarGraphStats() {
+        return similarMovieGraph.getStats();
+    }
+
+    @GetMapping("/query-counts")
+    public List<QueryCountStats> getQueryCounts() {
+        return queryCountFilter.getEndpointStats();
+    }
+
+    @GetMapping("/caches")
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>(localMovieDataService.getCacheStats());
+        stats.add(sentimentAnalysisService.getCacheStats());
+        return stats;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.movie.review.analyser.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured pool with a primary and a read-replica pool behind a
+ * {@link ReplicaRoutingDataSource} when {@code datasource.replica.url} is set. The primary keeps
+ * the usual {@code spring.datasource.*} settings; the replica pool is tuned with
+ * {@code datasource.replica.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName()).url(url).username(username).password(password).build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, @Qualifier("replicaDataSource") DataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary, ReplicaRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.movie.review.analyser.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends reads from requests marked by {@link ReplicaRoutingFilter} to the read replica and
+ * everything else (writes, loaders, background jobs) to the primary. Wrapped in a
+ * {@code LazyConnectionDataSourceProxy}, so the choice is made at the first statement, once
+ * the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary", REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    public static void allowReplica(boolean allowed) {
+        if (allowed) REPLICA_ALLOWED.set(Boolean.TRUE);
+        else REPLICA_ALLOWED.remove();
+    }
+
+    /** Whether this thread may read from the replica; capture it to hand the choice on to worker threads. */
+    public static boolean isReplicaAllowed() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+    }
+
+    /** Runs a lookup with the given routing, restoring the thread's previous choice afterwards. */
+    public static <T> T callWith(boolean replicaAllowed, Supplier<T> lookup) {
+        boolean previous = isReplicaAllowed();
+        allowReplica(replicaAllowed);
+        try {
+            return lookup.get();
+        } finally {
+            allowReplica(previous);
+        }
+    }
+
+    /** For reads that must see the latest writes, even inside a replica-routed request. */
+    public static <T> T onPrimary(Supplier<T> lookup) {
+        return callWith(false, lookup);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // A read-write transaction opened inside a replica-routed request still goes to the primary
+        boolean readOnly = !TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return isReplicaAllowed() && readOnly ? REPLICA : PRIMARY;
+    }
+}
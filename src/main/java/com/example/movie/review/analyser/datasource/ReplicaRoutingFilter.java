@@ -0,0 +1,38 @@
+package com.example.movie.review.analyser.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets the read-only movie endpoints (GET /api/movies/**) read from the replica. The warehouse
+ * tables do not change after loading, so replication lag cannot serve stale movie data; review
+ * endpoints stay on the primary so a client always reads its own writes, and so do the review
+ * stats inside the bundle ({@link ReplicaRoutingDataSource#onPrimary}).
+ */
+@Component
+@ConditionalOnProperty("datasource.replica.url")
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/movies/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReplicaRoutingDataSource.allowReplica(true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.allowReplica(false);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.movie.review.analyser.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+@Data @AllArgsConstructor
+public class BulkImportResult {
+    private long received;
+    private long imported;
+    private long rejected;
+    private List<String> errors;   // the first few, with their line (NDJSON) or record (CSV) number
+    private double elapsedSeconds;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,17 @@
+package com.example.movie.review.analyser.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+@Data @AllArgsConstructor
+public class CacheStats {
+    private String name;
+    private long size;
+    private long maximumSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
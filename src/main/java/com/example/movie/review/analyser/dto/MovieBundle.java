@@ -0,0 +1,15 @@
+package com.example.movie.review.analyser.dto;
+import com.example.movie.review.analyser.model.ExternalReview;
+import com.example.movie.review.analyser.model.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+// Everything the details view needs for one movie, in a single response
+@Data @AllArgsConstructor
+public class MovieBundle {
+    private Movie movie;
+    private List<CastMember> cast;
+    private List<ExternalReview> externalReviews;
+    private List<MovieSummary> similarMovies;
+    private ReviewStats reviewStats;
+}
@@ -0,0 +1,13 @@
+package com.example.movie.review.analyser.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+// The fields of Movie that list views need (no overview); JSON-compatible with Movie for those views
+@Data @AllArgsConstructor
+public class MovieSummary {
+    private int filmid;
+    private String title;
+    private String posterPath;
+    private String releaseDate;
+    private double voteAverage;
+    private int voteCount;
+}
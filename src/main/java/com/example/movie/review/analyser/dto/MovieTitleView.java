@@ -0,0 +1,7 @@
+package com.example.movie.review.analyser.dto;
+// Narrow projection used to build the in-memory title index without loading overviews.
+public interface MovieTitleView {
+    int getFilmid();
+    String getTitle();
+    int getVoteCount();
+}
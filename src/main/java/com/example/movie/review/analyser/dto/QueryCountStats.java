@@ -0,0 +1,11 @@
+package com.example.movie.review.analyser.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+@Data @AllArgsConstructor
+public class QueryCountStats {
+    private String endpoint;
+    private long requests;
+    private long totalQueries;
+    private long maxQueries;
+    private long overBudgetRequests;
+}
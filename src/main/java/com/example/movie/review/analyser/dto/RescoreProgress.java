@@ -0,0 +1,13 @@
+package com.example.movie.review.analyser.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+@Data @AllArgsConstructor
+public class RescoreProgress {
+    private String table;
+    private String modelVersion;
+    private long lastId;    // keyset checkpoint: rows up to this id have been rescored
+    private long scanned;
+    private long changed;
+    private boolean complete;
+    private boolean running;
+}
@@ -1,13 +1,11 @@
 package com.example.movie.review.analyser.dto;
-import com.example.movie.review.analyser.model.Review;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.util.List;
+// Reviews themselves are paged through GET /api/reviews so this stays constant-size
 @Data @AllArgsConstructor @NoArgsConstructor
 public class ReviewStats {
-    private List<Review> reviews;
     private long totalReviews;
     private double averageRating;
     private String dominantSentiment;
-}
\ No newline at end of file
+}
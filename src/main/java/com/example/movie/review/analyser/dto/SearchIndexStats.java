@@ -0,0 +1,12 @@
+package com.example.movie.review.analyser.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+@Data @AllArgsConstructor
+public class SearchIndexStats {
+    private boolean ready;
+    private int indexedTitles;
+    private int pendingTitles;   // inserted since the last full build, held in the tail segment
+    private int distinctTrigrams;
+    private long buildMillis;
+    private long estimatedBytes;
+}
@@ -0,0 +1,12 @@
+package com.example.movie.review.analyser.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+@Data @AllArgsConstructor
+public class SimilarGraphStats {
+    private boolean ready;
+    private int movies;
+    private int links;
+    private int droppedLinks;   // links whose target is not a known movie
+    private long buildMillis;
+    private long estimatedBytes;
+}
@@ -0,0 +1,56 @@
+package com.example.movie.review.analyser.loader;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Records which batches of each workbook have been committed, so an interrupted load resumes
+ * where it stopped. A checkpoint row is written in the same transaction as the batch it covers.
+ */
+@Component
+public class LoadCheckpointStore {
+
+    /** Source name of the marker row written once every workbook has been loaded. */
+    public static final String WAREHOUSE = "*";
+    private static final int COMPLETE = -1;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    public void ensureTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS load_checkpoint ("
+            + "source VARCHAR(255) NOT NULL, batch_no INT NOT NULL, row_count INT NOT NULL, "
+            + "PRIMARY KEY (source, batch_no))");
+    }
+
+    /** Whether any of the given sources has a checkpoint; other startup markers share the table. */
+    public boolean hasAny(Collection<String> sources) {
+        String placeholders = String.join(", ", Collections.nCopies(sources.size(), "?"));
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) > 0 FROM load_checkpoint WHERE source IN (" + placeholders + ")", Boolean.class, sources.toArray()));
+    }
+
+    public boolean isComplete(String source) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) > 0 FROM load_checkpoint WHERE source = ? AND batch_no = ?", Boolean.class, source, COMPLETE));
+    }
+
+    public BitSet completedBatches(String source) {
+        BitSet done = new BitSet();
+        jdbcTemplate.query("SELECT batch_no FROM load_checkpoint WHERE source = ? AND batch_no >= 0",
+            rs -> { done.set(rs.getInt(1)); }, source);
+        return done;
+    }
+
+    public void recordBatch(String source, int batchNo, int rowCount) {
+        jdbcTemplate.update("INSERT INTO load_checkpoint (source, batch_no, row_count) VALUES (?, ?, ?)", source, batchNo, rowCount);
+    }
+
+    public void markComplete(String source) {
+        if (!isComplete(source)) recordBatch(source, COMPLETE, 0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.movie.review.analyser.loader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-file counters shared by the parser and writer threads, mirrored to the
+ * {@code loader.rows} meter (tagged by sheet and state) so ingest rate can be scraped while it runs.
+ */
+public class LoadStats {
+    private final String file;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder parsedRows = new LongAdder();
+    private final LongAdder writtenRows = new LongAdder();
+    private final LongAdder skippedRows = new LongAdder();
+    private final LongAdder resumedRows = new LongAdder();
+    private final AtomicLong lastWriteNanos = new AtomicLong(startNanos);
+    private final Counter parsedCounter, writtenCounter, skippedCounter, resumedCounter;
+
+    public LoadStats(String file, MeterRegistry registry) {
+        this.file = file;
+        this.parsedCounter = rowCounter(registry, file, "parsed");
+        this.writtenCounter = rowCounter(registry, file, "written");
+        this.skippedCounter = rowCounter(registry, file, "skipped");
+        this.resumedCounter = rowCounter(registry, file, "resumed");
+    }
+
+    private static Counter rowCounter(MeterRegistry registry, String file, String state) {
+        return Counter.builder("loader.rows").description("Workbook rows by outcome")
+            .tag("sheet", file).tag("state", state).register(registry);
+    }
+
+    void parsed(int rows) {
+        parsedRows.add(rows);
+        parsedCounter.increment(rows);
+    }
+
+    void skipped(int rows) {
+        skippedRows.add(rows);
+        skippedCounter.increment(rows);
+    }
+
+    void resumed(int rows) {
+        resumedRows.add(rows);
+        resumedCounter.increment(rows);
+    }
+
+    void written(int rows) {
+        writtenRows.add(rows);
+        writtenCounter.increment(rows);
+        lastWriteNanos.accumulateAndGet(System.nanoTime(), Math::max);
+    }
+
+    public String getFile() { return file; }
+
+    public long getParsedRows() { return parsedRows.sum(); }
+
+    public long getWrittenRows() { return writtenRows.sum(); }
+
+    public long getSkippedRows() { return skippedRows.sum(); }
+
+    public long getResumedRows() { return resumedRows.sum(); }
+
+    public double getElapsedSeconds() {
+        return Math.max(lastWriteNanos.get() - startNanos, 1) / 1e9;
+    }
+
+    public double getRowsPerSecond() {
+        return getWrittenRows() / getElapsedSeconds();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %,d rows written (%,d skipped, %,d already loaded) in %.1fs -> %,.0f rows/sec",
+            file, getWrittenRows(), getSkippedRows(), getResumedRows(), getElapsedSeconds(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.movie.review.analyser.loader;
+
+/**
+ * Turns a sheet row into JDBC statement arguments, or returns {@code null} to skip the row.
+ * {@code rowNumber} is the 0-based position of the row among the sheet's data rows, or among
+ * the rows of its group when the load is {@linkplain SheetLoad#groupedBy grouped}.
+ */
+@FunctionalInterface
+public interface RowMapper {
+    Object[] map(String[] row, SheetHeader header, int rowNumber);
+}
@@ -0,0 +1,34 @@
+package com.example.movie.review.analyser.loader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/** Column lookup by header name, so mappers do not depend on the column order of a workbook export. */
+public class SheetHeader {
+    public static final SheetHeader EMPTY = new SheetHeader(new String[0]);
+
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    public SheetHeader(String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) positions.putIfAbsent(key(names[i]), i);
+        }
+    }
+
+    /** Position of the first candidate present in the header (case and underscores ignored), or -1. */
+    public int index(String... candidates) {
+        for (String candidate : candidates) {
+            Integer position = positions.get(key(candidate));
+            if (position != null) return position;
+        }
+        return -1;
+    }
+
+    public static String value(String[] row, int index) {
+        return index >= 0 && index < row.length ? row[index] : null;
+    }
+
+    private static String key(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.movie.review.analyser.loader;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * One workbook to load: the insert statement for its table and how to turn a sheet row into
+ * statement arguments. The optional enricher fills in derived columns (e.g. sentiment) and runs
+ * on the loader's scoring pool; the optional afterWrite hook runs once a batch is committed.
+ * When {@code groupBy} names a column, rows are numbered within each value of that column
+ * instead of across the sheet (see {@link RowMapper}).
+ */
+public record SheetLoad(String file, String insertSql, RowMapper rowMapper,
+                        Consumer<List<Object[]>> enricher, Consumer<List<Object[]>> afterWrite,
+                        List<String> groupBy) {
+
+    public SheetLoad(String file, String insertSql, RowMapper rowMapper) {
+        this(file, insertSql, rowMapper, null, null);
+    }
+
+    public SheetLoad(String file, String insertSql, RowMapper rowMapper,
+                     Consumer<List<Object[]>> enricher, Consumer<List<Object[]>> afterWrite) {
+        this(file, insertSql, rowMapper, enricher, afterWrite, List.of());
+    }
+
+    /** Numbers rows within each value of the first of {@code columns} present in the header. */
+    public SheetLoad groupedBy(String... columns) {
+        return new SheetLoad(file, insertSql, rowMapper, enricher, afterWrite, List.of(columns));
+    }
+}
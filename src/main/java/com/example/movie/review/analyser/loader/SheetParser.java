@@ -0,0 +1,9 @@
+package com.example.movie.review.analyser.loader;
+import java.util.List;
+import java.util.function.Consumer;
+
+/** Streams the first sheet of a workbook: the header row first, then data rows in batches. */
+@FunctionalInterface
+public interface SheetParser {
+    void parse(String filePath, Consumer<String[]> headerProcessor, Consumer<List<String[]>> batchProcessor) throws Exception;
+}
@@ -0,0 +1,131 @@
+package com.example.movie.review.analyser.loader;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * SAX handler turning sheet XML into rows. Cells are placed by their {@code r} reference, so empty
+ * cells leave a {@code null} instead of shifting the following columns left. Cell text goes into a
+ * reused char buffer, shared-string cells are an index into the pre-resolved {@code sharedStrings}
+ * and the row is built in a reused array, so the only allocations per row are its values and one
+ * right-sized copy handed to the batch.
+ */
+public class SheetRowHandler extends DefaultHandler {
+
+    public static final int BATCH_SIZE = 2000;
+
+    private static final int VALUE = 0, SHARED_STRING = 1, INLINE_STRING = 2;
+
+    private final String[] sharedStrings;
+    private final Consumer<String[]> headerProcessor;
+    private final Consumer<List<String[]>> batchProcessor;
+
+    private char[] text = new char[256];
+    private int textLength;
+    private boolean collecting;
+    private int cellType;
+    private int column;
+    private int nextColumn;
+    private String[] cells = new String[32];
+    private int width;      // highest column + 1 seen in the current row
+    private int headerWidth = -1;
+    private List<String[]> batch = new ArrayList<>(BATCH_SIZE);
+
+    public SheetRowHandler(String[] sharedStrings, Consumer<String[]> headerProcessor, Consumer<List<String[]>> batchProcessor) {
+        this.sharedStrings = sharedStrings;
+        this.headerProcessor = headerProcessor;
+        this.batchProcessor = batchProcessor;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName.isEmpty() ? qName : localName) {
+            case "row" -> nextColumn = 0;
+            case "c" -> {
+                column = columnOf(attributes.getValue("r"), nextColumn);
+                nextColumn = column + 1;
+                String type = attributes.getValue("t");
+                cellType = "s".equals(type) ? SHARED_STRING : "inlineStr".equals(type) ? INLINE_STRING : VALUE;
+            }
+            case "v" -> {
+                textLength = 0;
+                collecting = true;
+            }
+            case "is" -> textLength = 0; // an inline string may be split into several <t> runs
+            case "t" -> collecting = cellType == INLINE_STRING;
+            default -> { }
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        switch (localName.isEmpty() ? qName : localName) {
+            case "v" -> {
+                collecting = false;
+                store(cellType == SHARED_STRING ? sharedStrings[parseIndex()] : new String(text, 0, textLength));
+            }
+            case "t" -> collecting = false;
+            case "is" -> store(new String(text, 0, textLength));
+            case "row" -> endRow();
+            default -> { }
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (!collecting) return;
+        if (textLength + length > text.length) text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + length));
+        System.arraycopy(ch, start, text, textLength, length);
+        textLength += length;
+    }
+
+    @Override
+    public void endDocument() {
+        if (!batch.isEmpty()) batchProcessor.accept(batch);
+    }
+
+    private void store(String value) {
+        if (column >= cells.length) cells = Arrays.copyOf(cells, Math.max(cells.length * 2, column + 1));
+        cells[column] = value;
+        width = Math.max(width, column + 1);
+    }
+
+    private void endRow() {
+        if (headerWidth < 0) { // the first row is the header
+            headerWidth = width;
+            headerProcessor.accept(Arrays.copyOf(cells, width));
+        } else {
+            // Padded to the header width so trailing empty cells read as null
+            batch.add(Arrays.copyOf(cells, Math.max(width, headerWidth)));
+            if (batch.size() >= BATCH_SIZE) {
+                batchProcessor.accept(batch);
+                batch = new ArrayList<>(BATCH_SIZE); // the consumer may hand the batch to another thread
+            }
+        }
+        Arrays.fill(cells, 0, width, null);
+        width = 0;
+    }
+
+    private int parseIndex() {
+        int value = 0;
+        for (int i = 0; i < textLength; i++) value = value * 10 + (text[i] - '0');
+        return value;
+    }
+
+    // "AB12" -> 27; cells without a reference follow the previous one
+    static int columnOf(String reference, int fallback) {
+        if (reference == null) return fallback;
+        int column = 0, i = 0;
+        for (; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return i == 0 ? fallback : column - 1;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.movie.review.analyser.loader;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes node startup against a shared database. The single row of {@code warehouse_load}
+ * doubles as a mutex: a node claims it before Hibernate updates the schema and holds it through
+ * the one-off backfills, the data warehouse load and the re-queueing of pending reviews, so only
+ * one node does any of that at a time; the others wait, then find the work done and go on to warm
+ * their caches. A claim whose heartbeat is older than the lease is taken over, so a crashed node
+ * does not block the cluster, and so is a claim left by a dead process on this host (a node that
+ * crashed and is being restarted). Heartbeats are stamped with the database clock, never the node's.
+ * {@code state} says whether the warehouse is loaded and {@code version} counts completed loads.
+ * A single node on its own database has nobody to wait for, so the lock is only taken with
+ * {@code warehouse.lock.enabled} (the shared profile) or an explicit {@code warehouse.node-id}.
+ */
+@Component
+public class WarehouseLoadLock {
+
+    /** Release after startup work ordered before this (pending review re-queueing) and before the cache warm-ups. */
+    public static final int RELEASE_ORDER = 1;
+
+    private static final String EMPTY = "EMPTY", READY = "READY";
+    private static final String STALE = "heartbeat < CURRENT_TIMESTAMP - CAST(? AS INT) * INTERVAL '1' SECOND";
+
+    // Its own template on the raw DataSource: the JdbcTemplate bean may wait on SQL init scripts, which wait on the schema
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${warehouse.lock.enabled:false}") private boolean enabled;
+    @Value("${warehouse.lock.lease-seconds:60}") private int leaseSeconds;
+    @Value("${warehouse.lock.poll-seconds:5}") private int pollSeconds;
+    @Value("${warehouse.node-id:}") private String nodeId;
+
+    private ScheduledExecutorService heartbeat;
+    private volatile long version = -1; // read once; only a load under the lock changes it
+
+    @Autowired
+    public WarehouseLoadLock(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /** Blocks until this node holds the startup lock. */
+    @PostConstruct
+    public void acquire() throws InterruptedException {
+        boolean locking = enabled || !nodeId.isBlank();
+        if (nodeId.isBlank()) nodeId = ManagementFactory.getRuntimeMXBean().getName(); // pid@hostname
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS warehouse_load ("
+            + "id INT NOT NULL PRIMARY KEY, state VARCHAR(16) NOT NULL, version BIGINT NOT NULL, "
+            + "locked_by VARCHAR(255), heartbeat TIMESTAMP WITH TIME ZONE)");
+        if (!locking) {
+            // Still keeps the load state and version
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM warehouse_load", Integer.class) == 0) {
+                jdbcTemplate.update("INSERT INTO warehouse_load (id, state, version) VALUES (1, ?, 0)", EMPTY);
+            }
+            return;
+        }
+        boolean announced = false;
+        while (true) {
+            try {
+                jdbcTemplate.update("INSERT INTO warehouse_load (id, state, version, locked_by, heartbeat) VALUES (1, ?, 0, ?, CURRENT_TIMESTAMP)",
+                    EMPTY, nodeId);
+                break;
+            } catch (DuplicateKeyException e) {
+                // Another node created the row first
+            }
+            List<String> holders = jdbcTemplate.queryForList("SELECT locked_by FROM warehouse_load WHERE id = 1", String.class);
+            String holder = holders.isEmpty() ? null : holders.get(0);
+            if (holder != null && !holder.equals(nodeId) && isDeadLocalProcess(holder)
+                    && jdbcTemplate.update("UPDATE warehouse_load SET locked_by = ?, heartbeat = CURRENT_TIMESTAMP WHERE id = 1 AND locked_by = ?",
+                        nodeId, holder) == 1) {
+                System.out.println("Took over the startup lock from " + holder + " (process no longer running)");
+                break;
+            }
+            int claimed = jdbcTemplate.update("UPDATE warehouse_load SET locked_by = ?, heartbeat = CURRENT_TIMESTAMP "
+                + "WHERE id = 1 AND (locked_by IS NULL OR locked_by = ? OR " + STALE + ")", nodeId, nodeId, leaseSeconds);
+            if (claimed == 1) {
+                if (holder != null && !holder.equals(nodeId)) System.out.println("Took over the startup lock from " + holder + " (lease expired)");
+                break;
+            }
+            if (!announced) {
+                System.out.println("Waiting for " + (holders.isEmpty() ? "another node" : holders.get(0)) + " to finish starting up...");
+                announced = true;
+            }
+            TimeUnit.SECONDS.sleep(pollSeconds);
+        }
+        System.out.println("Node " + nodeId + " holds the startup lock");
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("startup-lock-heartbeat-"));
+        long period = Math.max(1, leaseSeconds / 3);
+        heartbeat.scheduleAtFixedRate(() -> {
+            try {
+                jdbcTemplate.update("UPDATE warehouse_load SET heartbeat = CURRENT_TIMESTAMP WHERE id = 1 AND locked_by = ?", nodeId);
+            } catch (RuntimeException e) {
+                System.out.println("Could not refresh the startup lock heartbeat: " + e.getMessage()); // retried next period
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    // A pid@hostname claim from this host whose process has exited
+    private static boolean isDeadLocalProcess(String holder) {
+        String self = ManagementFactory.getRuntimeMXBean().getName();
+        int at = holder.indexOf('@');
+        if (at <= 0 || !holder.substring(at).equals(self.substring(self.indexOf('@')))) return false;
+        try {
+            return ProcessHandle.of(Long.parseLong(holder.substring(0, at))).isEmpty();
+        } catch (NumberFormatException e) {
+            return false; // a configured node id
+        }
+    }
+
+    public boolean isLoaded() {
+        return READY.equals(jdbcTemplate.queryForObject("SELECT state FROM warehouse_load WHERE id = 1", String.class));
+    }
+
+    /** Records a finished load; {@code loaded} bumps the version (false when the data was already there). */
+    public void markLoaded(boolean loaded) {
+        jdbcTemplate.update("UPDATE warehouse_load SET state = ?, version = version + ? WHERE id = 1", READY, loaded ? 1 : 0);
+        version = -1;
+    }
+
+    public long getVersion() {
+        if (version < 0) {
+            List<Long> versions = jdbcTemplate.queryForList("SELECT version FROM warehouse_load WHERE id = 1", Long.class);
+            version = versions.isEmpty() ? 0 : versions.get(0);
+        }
+        return version;
+    }
+
+    // Also runs when startup fails: the context is closed, and an unfinished load resumes on the next node
+    @Order(RELEASE_ORDER)
+    @EventListener(ApplicationReadyEvent.class)
+    @PreDestroy
+    public void release() {
+        if (heartbeat == null) return;
+        heartbeat.shutdownNow();
+        heartbeat = null;
+        jdbcTemplate.update("UPDATE warehouse_load SET locked_by = NULL WHERE id = 1 AND locked_by = ?", nodeId);
+        System.out.println("Node " + nodeId + " released the startup lock");
+    }
+
+    // Hibernate's schema update (ddl-auto) runs under the lock
+    @Component
+    static class SchemaUnderLock extends EntityManagerFactoryDependsOnPostProcessor {
+        SchemaUnderLock() {
+            super(WarehouseLoadLock.class);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.movie.review.analyser.loader;
+
+/**
+ * Published once the warehouse tables have been (re)filled, from the workbooks or from a snapshot.
+ * In-memory views built from those tables listen for it instead of relying on startup order.
+ */
+public record WarehouseLoadedEvent(boolean fromSnapshot) {
+}
@@ -0,0 +1,215 @@
+package com.example.movie.review.analyser.loader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel XLSX -> database pipeline. Each workbook is parsed on its own thread; row batches go
+ * through a bounded queue (so parsing cannot run ahead of the database) to a pool of writer
+ * threads that insert them with plain JDBC batch statements. Expensive derived columns are
+ * computed on a separate scoring pool, and every committed batch is checkpointed so an
+ * interrupted load can be resumed.
+ */
+@Component
+public class WarehouseLoader {
+
+    private static final Batch POISON = new Batch(null, -1, null, null);
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private LoadCheckpointStore checkpointStore;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${loader.parser-threads:5}") private int parserThreads;
+    @Value("${loader.writer-threads:4}") private int writerThreads;
+    @Value("${loader.scoring-threads:0}") private int scoringThreads;
+    @Value("${loader.queue-capacity:16}") private int queueCapacity;
+    @Value("${loader.progress-interval-seconds:10}") private int progressIntervalSeconds;
+
+    public List<LoadStats> load(List<SheetLoad> loads, SheetParser sheetParser) throws Exception {
+        checkpointStore.ensureTable();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<FileState> files = new ArrayList<>();
+        for (SheetLoad load : loads) {
+            files.add(new FileState(load, checkpointStore.isComplete(load.file()), checkpointStore.completedBatches(load.file()), meterRegistry));
+        }
+
+        int scoringPoolSize = scoringThreads > 0 ? scoringThreads : Runtime.getRuntime().availableProcessors();
+        ExecutorService parsers = Executors.newFixedThreadPool(Math.max(1, Math.min(parserThreads, loads.size())), new CustomizableThreadFactory("xlsx-parser-"));
+        ExecutorService writers = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("jdbc-writer-"));
+        ExecutorService scorers = Executors.newFixedThreadPool(scoringPoolSize, new CustomizableThreadFactory("ingest-scorer-"));
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("load-progress-"));
+        progress.scheduleAtFixedRate(() -> files.forEach(f -> { if (!f.done.get()) System.out.println("  ... " + f.stats); }),
+            progressIntervalSeconds, progressIntervalSeconds, TimeUnit.SECONDS);
+        try {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (int i = 0; i < writerThreads; i++) {
+                writerFutures.add(writers.submit(() -> drain(queue, failure, scorers, scoringPoolSize)));
+            }
+            List<Future<?>> parserFutures = new ArrayList<>();
+            for (FileState file : files) {
+                if (file.done.get()) {
+                    System.out.println("Skipping " + file.load.file() + " (already loaded)");
+                    continue;
+                }
+                parserFutures.add(parsers.submit(() -> parse(file, sheetParser, queue, failure)));
+            }
+            for (Future<?> future : parserFutures) {
+                await(future, failure);
+            }
+            for (int i = 0; i < writerThreads; i++) {
+                put(queue, POISON);
+            }
+            for (Future<?> future : writerFutures) {
+                await(future, failure);
+            }
+        } finally {
+            progress.shutdownNow();
+            parsers.shutdownNow();
+            writers.shutdownNow();
+            scorers.shutdownNow();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Data warehouse load failed (committed batches will be skipped on restart)", failure.get());
+        }
+        files.forEach(f -> System.out.println("  " + f.stats));
+        return files.stream().map(f -> f.stats).toList();
+    }
+
+    private Void parse(FileState file, SheetParser sheetParser, BlockingQueue<Batch> queue, AtomicReference<Throwable> failure) throws Exception {
+        System.out.println("Streaming " + file.load.file() + (file.committed.isEmpty() ? "..." : " (resuming after " + file.committed.cardinality() + " batches)..."));
+        int[] batchNo = {0};
+        int[] nextRow = {0};
+        // Row numbers are assigned here, in sheet order, including for batches a resumed load skips
+        Map<String, Integer> groupSizes = new HashMap<>();
+        sheetParser.parse(file.load.file(), header -> file.header = new SheetHeader(header), rows -> {
+            if (failure.get() != null) throw new CancellationException("Load aborted");
+            int current = batchNo[0]++;
+            int group = file.load.groupBy().isEmpty() ? -1 : file.header.index(file.load.groupBy().toArray(String[]::new));
+            int[] positions = new int[rows.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = group < 0 ? nextRow[0]++ : groupSizes.merge(SheetHeader.value(rows.get(i), group), 1, Integer::sum) - 1;
+            }
+            file.stats.parsed(rows.size());
+            if (file.committed.get(current)) {
+                file.stats.resumed(rows.size());
+                return;
+            }
+            file.pending.incrementAndGet();
+            put(queue, new Batch(file, current, positions, rows));
+        });
+        file.parsed = true;
+        System.out.println("-> Finished streaming " + file.load.file());
+        if (file.pending.get() == 0) complete(file);
+        return null;
+    }
+
+    // Writer loop: after a failure keep taking batches (without writing) so parsers never block on a full queue.
+    private Void drain(BlockingQueue<Batch> queue, AtomicReference<Throwable> failure, ExecutorService scorers, int scoringPoolSize) throws InterruptedException {
+        while (true) {
+            Batch batch = queue.take();
+            if (batch == POISON) return null;
+            if (failure.get() != null) continue;
+            try {
+                write(batch, scorers, scoringPoolSize);
+                if (batch.file().pending.decrementAndGet() == 0 && batch.file().parsed) complete(batch.file());
+            } catch (RuntimeException | ExecutionException e) {
+                failure.compareAndSet(null, e instanceof ExecutionException ? e.getCause() : e);
+            }
+        }
+    }
+
+    private void write(Batch batch, ExecutorService scorers, int scoringPoolSize) throws InterruptedException, ExecutionException {
+        SheetLoad load = batch.file().load;
+        SheetHeader header = batch.file().header;
+        List<Object[]> args = new ArrayList<>(batch.rows().size());
+        List<String[]> rows = batch.rows();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] mapped = load.rowMapper().map(rows.get(i), header, batch.positions()[i]);
+            if (mapped != null) args.add(mapped);
+        }
+        batch.file().stats.skipped(batch.rows().size() - args.size());
+        if (load.enricher() != null && !args.isEmpty()) {
+            enrich(load, args, scorers, scoringPoolSize);
+        }
+        // The rows and their checkpoint commit together, so a restart never duplicates or loses a batch
+        batch.file().writeTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            if (!args.isEmpty()) jdbcTemplate.batchUpdate(load.insertSql(), args);
+            checkpointStore.recordBatch(load.file(), batch.batchNo(), args.size());
+        }));
+        batch.file().stats.written(args.size());
+        if (load.afterWrite() != null && !args.isEmpty()) load.afterWrite().accept(args);
+    }
+
+    // Splits the batch into one slice per scoring thread and waits for all of them
+    private static void enrich(SheetLoad load, List<Object[]> args, ExecutorService scorers, int scoringPoolSize)
+            throws InterruptedException, ExecutionException {
+        int sliceSize = (args.size() + scoringPoolSize - 1) / scoringPoolSize;
+        List<Future<?>> slices = new ArrayList<>();
+        for (int from = 0; from < args.size(); from += sliceSize) {
+            List<Object[]> slice = args.subList(from, Math.min(from + sliceSize, args.size()));
+            slices.add(scorers.submit(() -> load.enricher().accept(slice)));
+        }
+        for (Future<?> slice : slices) {
+            slice.get();
+        }
+    }
+
+    private void complete(FileState file) {
+        if (file.done.compareAndSet(false, true)) {
+            checkpointStore.markComplete(file.load.file());
+        }
+    }
+
+    private static void put(BlockingQueue<Batch> queue, Batch batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while queueing batch");
+        }
+    }
+
+    private static void await(Future<?> future, AtomicReference<Throwable> failure) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        }
+    }
+
+    private static final class FileState {
+        final SheetLoad load;
+        final LoadStats stats;
+        final Timer writeTimer;
+        final BitSet committed;
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean done;
+        volatile SheetHeader header = SheetHeader.EMPTY;
+        volatile boolean parsed;
+
+        FileState(SheetLoad load, boolean done, BitSet committed, MeterRegistry registry) {
+            this.load = load;
+            this.stats = new LoadStats(load.file(), registry);
+            this.writeTimer = Timer.builder("loader.batch.write").description("Batch insert and checkpoint commit time")
+                .tag("sheet", load.file()).register(registry);
+            this.done = new AtomicBoolean(done);
+            this.committed = committed;
+        }
+    }
+
+    private record Batch(FileState file, int batchNo, int[] positions, List<String[]> rows) {}
+}
@@ -0,0 +1,459 @@
+package com.example.movie.review.analyser.loader;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary copy of the loaded warehouse tables, so a node can start from it instead of parsing the
+ * XLSX workbooks. Layout:
+ * <pre>
+ *   MAGIC VERSION headerLength header headerCrc      header = sources (name, size, lastModified) + model version + table schemas
+ *   BLOCK tableIndex rowCount payloadLength payloadCrc payload    repeated, at most ROWS_PER_BLOCK rows each
+ *   END blockCount totalRows
+ * </pre>
+ * Every part carries a CRC32C. Blocks are memory-mapped and inserted in parallel on import. The
+ * recorded sources (size and modification time of each workbook) let a snapshot be rejected once
+ * the workbooks it was built from have changed, and the recorded sentiment model version once the
+ * stored labels would no longer match what the current model assigns.
+ */
+@Component
+public class WarehouseSnapshot {
+
+    private static final int MAGIC = 0x57534E50;      // "WSNP"
+    private static final int VERSION = 3; // 2: per-film credit_order and similarity_rank, 3: model version
+    private static final int BLOCK_TAG = 0x424C4B31;  // "BLK1"
+    private static final int END_TAG = 0x454E4421;    // "END!"
+    private static final int BLOCK_HEADER_BYTES = 20;
+    private static final int END_BYTES = 16;
+    private static final int ROWS_PER_BLOCK = 8192;
+    private static final byte INT = 'I', DOUBLE = 'D', STRING = 'S';
+
+    // Warehouse tables in load order; columns are name:type
+    static final List<Table> TABLES = List.of(
+        Table.of("movie", "filmid", "filmid:I", "title:S", "overview:S", "poster_path:S", "release_date:S", "vote_average:D", "vote_count:I"),
+        Table.of("person", "personid", "personid:I", "name:S", "profile_path:S"),
+        Table.of("crew_credit", "filmid, credit_order", "filmid:I", "credit_order:I", "personid:I", "character_name:S"),
+        Table.of("external_review", "id", "filmid:I", "author:S", "content:S", "sentiment:S"),
+        Table.of("similar_movie", "filmid, similarity_rank", "filmid:I", "similarity_rank:I", "similar_filmid:I")
+    );
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Value("${loader.writer-threads:4}") private int writerThreads;
+
+    private ExecutorService exporter;
+
+    @PostConstruct
+    public void start() {
+        exporter = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("snapshot-export-"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        exporter.shutdownNow();
+    }
+
+    // --- Export ---
+
+    /** Queues an {@link #export} on the background exporter; exports run one at a time. */
+    public void exportInBackground(Path file, List<String> sources, String modelVersion) {
+        exporter.execute(() -> {
+            try {
+                export(file, sources, modelVersion);
+            } catch (Exception e) {
+                System.out.println("Could not write warehouse snapshot " + file + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes every warehouse table to {@code file} (atomically replacing it) and returns the row count.
+     * {@code modelVersion} is the sentiment model that produced the stored labels.
+     */
+    public long export(Path file, List<String> sources, String modelVersion) throws IOException {
+        long start = System.currentTimeMillis();
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long totalRows = 0;
+        int blocks = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Buffer header = new Buffer(4096);
+            header.putInt(sources.size());
+            for (String source : sources) {
+                SourceFile current = SourceFile.of(source);
+                header.putString(source);
+                header.putLong(current == null ? -1 : current.size());
+                header.putLong(current == null ? -1 : current.lastModified());
+            }
+            header.putString(modelVersion);
+            header.putInt(TABLES.size());
+            for (Table table : TABLES) {
+                header.putString(table.name());
+                header.putInt(table.columns().length);
+                for (int c = 0; c < table.columns().length; c++) {
+                    header.putString(table.columns()[c]);
+                    header.put(table.types()[c]);
+                }
+            }
+            Buffer prefix = new Buffer(12);
+            prefix.putInt(MAGIC);
+            prefix.putInt(VERSION);
+            prefix.putInt(header.size());
+            write(channel, prefix.flip());
+            write(channel, header.flip());
+            write(channel, new Buffer(4).putInt(crc(header.flip())).flip());
+
+            for (int t = 0; t < TABLES.size(); t++) {
+                BlockWriter writer = new BlockWriter(channel, t, TABLES.get(t));
+                jdbcTemplate.query(TABLES.get(t).selectSql(), writer::add);
+                writer.flush();
+                totalRows += writer.rows;
+                blocks += writer.blocks;
+            }
+            Buffer end = new Buffer(END_BYTES);
+            end.putInt(END_TAG);
+            end.putInt(blocks);
+            end.putLong(totalRows);
+            write(channel, end.flip());
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Wrote warehouse snapshot " + file + ": " + totalRows + " rows in " + blocks + " blocks, "
+            + (Files.size(file) >> 20) + " MB in " + (System.currentTimeMillis() - start) + " ms");
+        return totalRows;
+    }
+
+    // --- Import ---
+
+    /**
+     * Loads {@code file} into the (empty) warehouse tables. Returns false, leaving the tables empty,
+     * when there is no usable snapshot: missing, other format version, built from different source
+     * files, scored by another sentiment model, or corrupt.
+     */
+    public boolean importIfValid(Path file, List<String> sources, String modelVersion) {
+        if (!Files.isRegularFile(file)) return false;
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            if (header == null) {
+                System.out.println("Ignoring warehouse snapshot with unknown format: " + file);
+                return false;
+            }
+            String stale = header.staleSource(sources);
+            if (stale != null) {
+                System.out.println("Warehouse snapshot " + file + " is stale (" + stale + " changed); reloading from XLSX.");
+                return false;
+            }
+            if (!modelVersion.equals(header.modelVersion())) {
+                System.out.println("Warehouse snapshot " + file + " was scored with model " + header.modelVersion() + "; reloading from XLSX.");
+                return false;
+            }
+            long rows = importBlocks(channel, header);
+            System.out.println("Imported " + rows + " rows from warehouse snapshot " + file + " in " + (System.currentTimeMillis() - start) + " ms");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Warehouse snapshot " + file + " could not be imported (" + e.getMessage() + "); reloading from XLSX.");
+            for (Table table : TABLES.reversed()) jdbcTemplate.update("DELETE FROM " + table.name());
+            return false;
+        }
+    }
+
+    /** Whether {@code file} is a readable snapshot of the current sources and sentiment model. */
+    public boolean isCurrent(Path file, List<String> sources, String modelVersion) {
+        if (!Files.isRegularFile(file)) return false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            return header != null && header.staleSource(sources) == null && modelVersion.equals(header.modelVersion());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Header readHeader(FileChannel channel) throws IOException {
+        if (channel.size() < 12 + 4 + END_BYTES) return null;
+        ByteBuffer prefix = read(channel, 0, 12);
+        if (prefix.getInt() != MAGIC || prefix.getInt() != VERSION) return null;
+        int headerLength = prefix.getInt();
+        ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 12, headerLength + 4L);
+        ByteBuffer body = bytes.slice(0, headerLength);
+        if (crc(body) != bytes.getInt(headerLength)) throw new IOException("header checksum mismatch");
+
+        Map<String, SourceFile> recorded = new LinkedHashMap<>();
+        int sourceCount = body.getInt();
+        for (int i = 0; i < sourceCount; i++) {
+            String name = getString(body);
+            recorded.put(name, new SourceFile(body.getLong(), body.getLong()));
+        }
+        String modelVersion = getString(body);
+        int tableCount = body.getInt();
+        if (tableCount != TABLES.size()) return null;
+        for (Table table : TABLES) {
+            // The schema must match column for column, otherwise the rows cannot be bound
+            if (!table.name().equals(getString(body)) || body.getInt() != table.columns().length) return null;
+            for (int c = 0; c < table.columns().length; c++) {
+                if (!table.columns()[c].equals(getString(body)) || body.get() != table.types()[c]) return null;
+            }
+        }
+        return new Header(recorded, modelVersion, 12 + headerLength + 4L);
+    }
+
+    private long importBlocks(FileChannel channel, Header header) throws Exception {
+        ByteBuffer end = read(channel, channel.size() - END_BYTES, END_BYTES);
+        if (end.getInt() != END_TAG) throw new IOException("snapshot is truncated");
+        int expectedBlocks = end.getInt();
+        long expectedRows = end.getLong();
+
+        ExecutorService writers = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("snapshot-writer-"));
+        List<Future<?>> futures = new ArrayList<>();
+        AtomicLong rows = new AtomicLong();
+        try {
+            long position = header.blocksStart();
+            long limit = channel.size() - END_BYTES;
+            while (position < limit) {
+                ByteBuffer blockHeader = read(channel, position, BLOCK_HEADER_BYTES);
+                if (blockHeader.getInt() != BLOCK_TAG) throw new IOException("bad block at offset " + position);
+                Table table = TABLES.get(blockHeader.getInt());
+                int rowCount = blockHeader.getInt();
+                int payloadLength = blockHeader.getInt();
+                int payloadCrc = blockHeader.getInt();
+                MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, position + BLOCK_HEADER_BYTES, payloadLength);
+                futures.add(writers.submit(() -> {
+                    if (crc(payload) != payloadCrc) throw new IOException("checksum mismatch in a " + table.name() + " block");
+                    List<Object[]> args = table.decode(payload, rowCount);
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(table.insertSql(), args));
+                    rows.addAndGet(rowCount);
+                    return null;
+                }));
+                position += BLOCK_HEADER_BYTES + payloadLength;
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+        if (futures.size() != expectedBlocks || rows.get() != expectedRows) {
+            throw new IOException("expected " + expectedRows + " rows in " + expectedBlocks + " blocks, found " + rows.get() + " in " + futures.size());
+        }
+        return rows.get();
+    }
+
+    // --- Encoding helpers ---
+
+    private static int crc(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException("snapshot is truncated");
+        }
+        return buffer.flip();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Workbooks are classpath resources, possibly inside the application jar
+    record SourceFile(long size, long lastModified) {
+        static SourceFile of(String name) throws IOException {
+            ClassPathResource resource = new ClassPathResource(name);
+            if (!resource.exists()) return null;
+            return new SourceFile(resource.contentLength(), resource.lastModified());
+        }
+    }
+
+    private record Header(Map<String, SourceFile> sources, String modelVersion, long blocksStart) {
+        // Sources that are not present locally cannot be compared and are trusted
+        String staleSource(List<String> expected) throws IOException {
+            for (String name : expected) {
+                SourceFile current = SourceFile.of(name);
+                if (current == null) continue;
+                if (!current.equals(sources.get(name))) return name;
+            }
+            return null;
+        }
+    }
+
+    record Table(String name, String orderBy, String[] columns, byte[] types) {
+        static Table of(String name, String orderBy, String... columnSpecs) {
+            String[] columns = new String[columnSpecs.length];
+            byte[] types = new byte[columnSpecs.length];
+            for (int i = 0; i < columnSpecs.length; i++) {
+                int colon = columnSpecs[i].indexOf(':');
+                columns[i] = columnSpecs[i].substring(0, colon);
+                types[i] = (byte) columnSpecs[i].charAt(colon + 1);
+            }
+            return new Table(name, orderBy, columns, types);
+        }
+
+        String selectSql() {
+            return "SELECT " + String.join(", ", columns) + " FROM " + name + " ORDER BY " + orderBy;
+        }
+
+        String insertSql() {
+            return "INSERT INTO " + name + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        }
+
+        void encode(ResultSet rs, Buffer out) throws SQLException {
+            for (int c = 0; c < types.length; c++) {
+                switch (types[c]) {
+                    case INT -> out.putInt(rs.getInt(c + 1));
+                    case DOUBLE -> out.putDouble(rs.getDouble(c + 1));
+                    default -> out.putString(rs.getString(c + 1));
+                }
+            }
+        }
+
+        List<Object[]> decode(ByteBuffer in, int rowCount) {
+            List<Object[]> rows = new ArrayList<>(rowCount);
+            for (int r = 0; r < rowCount; r++) {
+                Object[] row = new Object[types.length];
+                for (int c = 0; c < types.length; c++) {
+                    row[c] = switch (types[c]) {
+                        case INT -> in.getInt();
+                        case DOUBLE -> in.getDouble();
+                        default -> getString(in);
+                    };
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+
+    // Encodes one table's rows into blocks of at most ROWS_PER_BLOCK rows
+    private static final class BlockWriter {
+        final FileChannel channel;
+        final int tableIndex;
+        final Table table;
+        final Buffer payload = new Buffer(1 << 20);
+        int pending;
+        long rows;
+        int blocks;
+
+        BlockWriter(FileChannel channel, int tableIndex, Table table) {
+            this.channel = channel;
+            this.tableIndex = tableIndex;
+            this.table = table;
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            table.encode(rs, payload);
+            if (++pending == ROWS_PER_BLOCK) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new SQLException("Could not write snapshot block", e);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            if (pending == 0) return;
+            ByteBuffer body = payload.flip();
+            Buffer blockHeader = new Buffer(BLOCK_HEADER_BYTES);
+            blockHeader.putInt(BLOCK_TAG);
+            blockHeader.putInt(tableIndex);
+            blockHeader.putInt(pending);
+            blockHeader.putInt(body.remaining());
+            blockHeader.putInt(crc(body));
+            write(channel, blockHeader.flip());
+            write(channel, body);
+            payload.clear();
+            rows += pending;
+            blocks++;
+            pending = 0;
+        }
+    }
+
+    // Growable big-endian byte buffer
+    private static final class Buffer {
+        private ByteBuffer buffer;
+
+        Buffer(int capacity) {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+
+        Buffer put(byte value) { ensure(1).put(value); return this; }
+
+        Buffer putInt(int value) { ensure(4).putInt(value); return this; }
+
+        Buffer putLong(long value) { ensure(8).putLong(value); return this; }
+
+        Buffer putDouble(double value) { ensure(8).putDouble(value); return this; }
+
+        Buffer putString(String value) {
+            if (value == null) return putInt(-1);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length).putInt(bytes.length).put(bytes);
+            return this;
+        }
+
+        int size() {
+            return buffer.position();
+        }
+
+        // Read view of everything written so far; the buffer itself stays writable
+        ByteBuffer flip() {
+            return buffer.duplicate().flip();
+        }
+
+        void clear() {
+            buffer.clear();
+        }
+
+        private ByteBuffer ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer = grown.put(buffer.flip());
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.movie.review.analyser.loader;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/** Streams the first sheet of a classpath workbook through a {@link SheetRowHandler}. */
+@Component
+public class XlsxSheetParser implements SheetParser {
+
+    @Override
+    public void parse(String filePath, Consumer<String[]> headerProcessor, Consumer<List<String[]>> batchProcessor) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(new ClassPathResource(filePath).getInputStream())) {
+            parse(pkg, headerProcessor, batchProcessor);
+        }
+    }
+
+    public static void parse(OPCPackage pkg, Consumer<String[]> headerProcessor, Consumer<List<String[]>> batchProcessor) throws Exception {
+        XSSFReader reader = new XSSFReader(pkg);
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new SheetRowHandler(sharedStrings(pkg), headerProcessor, batchProcessor));
+
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        if (sheets.hasNext()) { // Process only the first sheet
+            try (InputStream sheetStream = sheets.next()) {
+                parser.parse(new InputSource(sheetStream));
+            }
+        }
+    }
+
+    /** The workbook's shared strings as plain strings, resolved once so each cell is an array lookup. */
+    public static String[] sharedStrings(OPCPackage pkg) throws Exception {
+        ReadOnlySharedStringsTable table = new ReadOnlySharedStringsTable(pkg, false);
+        int count = table.getUniqueCount();
+        if (count > 0) {
+            String[] strings = new String[count];
+            for (int i = 0; i < count; i++) strings[i] = table.getItemAt(i).getString();
+            return strings;
+        }
+        // uniqueCount is optional in the XML; without it, read until the table runs out
+        List<String> strings = new ArrayList<>();
+        try {
+            for (int i = 0; ; i++) strings.add(table.getItemAt(i).getString());
+        } catch (IllegalStateException end) {
+            return strings.toArray(new String[0]);
+        }
+    }
+}
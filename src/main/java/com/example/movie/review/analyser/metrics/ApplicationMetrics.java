@@ -0,0 +1,39 @@
+package com.example.movie.review.analyser.metrics;
+
+import com.example.movie.review.analyser.service.LocalMovieDataService;
+import com.example.movie.review.analyser.service.ReviewScoringWorker;
+import com.example.movie.review.analyser.service.SentimentAnalysisService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges over state the services already track (sentiment engine saturation, the deferred
+ * scoring backlog, read cache hit rates, SQL statements issued). Everything is sampled at scrape
+ * time, so the hot paths pay nothing beyond the counters they were already updating.
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    @Autowired private SentimentAnalysisService sentimentAnalysisService;
+    @Autowired private ReviewScoringWorker reviewScoringWorker;
+    @Autowired private LocalMovieDataService localMovieDataService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sentiment.queue.length", sentimentAnalysisService, SentimentAnalysisService::getQueueLength)
+            .description("Callers waiting for a CoreNLP parse slot").register(registry);
+        Gauge.builder("sentiment.parses.active", sentimentAnalysisService, SentimentAnalysisService::getActiveParses)
+            .description("CoreNLP parses currently running").register(registry);
+        Gauge.builder("reviews.scoring.queue.size", reviewScoringWorker, ReviewScoringWorker::getQueueSize)
+            .description("Reviews waiting for deferred sentiment scoring").register(registry);
+        FunctionCounter.builder("db.statements", QueryCounter.class, ignored -> QueryCounter.total())
+            .description("SQL statements executed").register(registry);
+
+        new LruCacheMetrics(sentimentAnalysisService.getCache()).bindTo(registry);
+        localMovieDataService.getCaches().forEach(cache -> new LruCacheMetrics(cache).bindTo(registry));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.movie.review.analyser.metrics;
+
+import com.example.movie.review.analyser.cache.LruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/** Publishes an {@link LruCache}'s counters as the standard {@code cache.*} meters. */
+public class LruCacheMetrics extends CacheMeterBinder<LruCache<?, ?>> {
+
+    public LruCacheMetrics(LruCache<?, ?> cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.getHitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.getMissCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.getEvictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        LruCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.getPutCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.movie.review.analyser.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds an {@code X-Query-Count} header right before the body is written, so clients
+ * and tests can assert on the number of statements a single request needed.
+ */
+@ControllerAdvice
+public class QueryCountAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Query-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(HEADER, Long.toString(QueryCounter.current()));
+        return body;
+    }
+}
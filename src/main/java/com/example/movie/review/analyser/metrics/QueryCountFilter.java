@@ -0,0 +1,102 @@
+package com.example.movie.review.analyser.metrics;
+
+import com.example.movie.review.analyser.dto.QueryCountStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks how many SQL statements each API request issued, per endpoint pattern,
+ * and counts the requests that go over the configured budget (the usual N+1 symptom), warning
+ * once per endpoint.
+ * The per-request counts are also published as the {@code http.server.requests.queries} summary.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    @Value("${query-count.warn-threshold:5}")
+    private int warnThreshold;
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    private final Map<String, EndpointCounter> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long queries = QueryCounter.current();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN"; // raw URIs would explode the tag space
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            EndpointCounter counter = endpoints.computeIfAbsent(endpoint, k -> new EndpointCounter(DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements issued per request")
+                .tag("method", request.getMethod()).tag("uri", uri)
+                .register(meterRegistry)));
+            counter.record(queries);
+            // Counted every time, logged once per endpoint
+            if (queries > warnThreshold && counter.overBudget()) {
+                System.out.println("WARNING: " + endpoint + " issued " + queries + " SQL statements (budget " + warnThreshold
+                    + "); further requests over budget are counted in /api/stats/query-counts");
+            }
+        }
+    }
+
+    public List<QueryCountStats> getEndpointStats() {
+        return endpoints.entrySet().stream()
+            .map(e -> e.getValue().snapshot(e.getKey()))
+            .sorted((a, b) -> a.getEndpoint().compareTo(b.getEndpoint()))
+            .toList();
+    }
+
+    private static final class EndpointCounter {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLong overBudget = new AtomicLong();
+        private final DistributionSummary summary;
+
+        EndpointCounter(DistributionSummary summary) {
+            this.summary = summary;
+        }
+
+        void record(long count) {
+            summary.record(count);
+            requests.increment();
+            queries.add(count);
+            max.accumulateAndGet(count, Math::max);
+        }
+
+        // True for the first request over budget
+        boolean overBudget() {
+            return overBudget.incrementAndGet() == 1;
+        }
+
+        QueryCountStats snapshot(String endpoint) {
+            return new QueryCountStats(endpoint, requests.sum(), queries.sum(), max.get(), overBudget.get());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.movie.review.analyser.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements executed on the current thread, or on the threads a request hands its
+ * work to (see {@link #callWith}), so a fanned-out request is counted in full. Fed by
+ * {@link QueryCountingDataSource}, so Hibernate and plain JDBC statements are counted alike.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<AtomicLong> COUNT = ThreadLocal.withInitial(AtomicLong::new);
+    private static final LongAdder TOTAL = new LongAdder();
+
+    private QueryCounter() {
+    }
+
+    static void increment() {
+        COUNT.get().incrementAndGet();
+        TOTAL.increment();
+    }
+
+    // A fresh counter, so tasks still holding the previous request's counter cannot add to this one
+    public static void reset() {
+        COUNT.set(new AtomicLong());
+    }
+
+    public static long current() {
+        return COUNT.get().get();
+    }
+
+    /** The current thread's counter, to be passed to {@link #callWith} on another thread. */
+    public static AtomicLong counter() {
+        return COUNT.get();
+    }
+
+    /** Runs work counting into the given counter, restoring the thread's own afterwards. */
+    public static <T> T callWith(AtomicLong counter, Supplier<T> work) {
+        AtomicLong previous = COUNT.get();
+        COUNT.set(counter);
+        try {
+            return work.get();
+        } finally {
+            COUNT.set(previous);
+        }
+    }
+
+    /** Statements executed on any thread since startup. */
+    public static long total() {
+        return TOTAL.sum();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.movie.review.analyser.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps a connection pool so every statement execution is counted by {@link QueryCounter}, whoever
+ * issued it (Hibernate, JdbcTemplate, the loader). A JDBC batch is one round trip and counts once.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (method, result) -> switch (method.getName()) {
+            case "createStatement" -> proxy(Statement.class, (Statement) result, QueryCountingDataSource::countExecution);
+            case "prepareStatement" -> proxy(PreparedStatement.class, (PreparedStatement) result, QueryCountingDataSource::countExecution);
+            case "prepareCall" -> proxy(CallableStatement.class, (CallableStatement) result, QueryCountingDataSource::countExecution);
+            default -> result;
+        });
+    }
+
+    private static Object countExecution(Method method, Object result) {
+        if (method.getName().startsWith("execute")) QueryCounter.increment();
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> {
+            try {
+                return handler.handle(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[] {type}, invocation);
+    }
+
+    @FunctionalInterface
+    private interface ResultHandler {
+        Object handle(Method method, Object result);
+    }
+
+    // Wraps the pools rather than the replica router on top of them, so each statement counts once
+    @Component
+    static class Installer implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof HikariDataSource pool ? new QueryCountingDataSource(pool) : bean;
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.example.movie.review.analyser.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
+// Keyed by (filmid, personid, characterName). Hibernate orders the key columns by name, so the film lookup gets its own index
 @Data
 @Entity
+@IdClass(CrewCreditId.class)
+@Table(indexes = @Index(name = "idx_crew_credit_filmid", columnList = "filmid, creditOrder"))
 public class CrewCredit {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
-    private int filmid;
-    private int personid;
-    private String characterName;
-}
\ No newline at end of file
+    @Id private int filmid;
+    @Id private int personid;
+    @Id @Column(nullable = false) private String characterName; // "" when the sheet has none
+    private int creditOrder; // billing order within the film, from 0
+}
@@ -0,0 +1,11 @@
+package com.example.movie.review.analyser.model;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+@Data @NoArgsConstructor @AllArgsConstructor
+public class CrewCreditId implements Serializable {
+    private int filmid;
+    private int personid;
+    private String characterName;
+}
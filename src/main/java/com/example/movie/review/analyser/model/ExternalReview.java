@@ -4,10 +4,11 @@ import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_external_review_filmid", columnList = "filmid"))
 public class ExternalReview {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
     private int filmid;
     private String author;
     @Column(length = 4000) private String content;
     private String sentiment; // The pre-computed sentiment
-}
\ No newline at end of file
+}
@@ -1,13 +1,23 @@
 package com.example.movie.review.analyser.model;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_review_title_key", columnList = "movieTitleKey"))
 public class Review {
+    public static final String PENDING = "Pending"; // saved, sentiment not scored yet
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
     private String movieTitle;
+    @JsonIgnore private String movieTitleKey; // case-folded movieTitle, so title lookups can use an index
     @Column(length = 2000) private String reviewText;
     private String sentiment;
     private double rating;
-}
\ No newline at end of file
+
+    @PrePersist @PreUpdate
+    void updateTitleKey() {
+        movieTitleKey = ReviewAggregate.keyOf(movieTitle);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.movie.review.analyser.model;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Locale;
+
+// Running totals per title, maintained on every review insert and sentiment update
+@Data
+@NoArgsConstructor
+@Entity
+public class ReviewAggregate {
+    @Id private String titleKey; // lower-cased movie title
+    private long reviewCount;
+    private double ratingSum;
+    private long positiveCount;
+    private long negativeCount;
+    private long neutralCount;
+    private long pendingCount;
+
+    public ReviewAggregate(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public static String keyOf(String movieTitle) {
+        return movieTitle == null ? "" : movieTitle.toLowerCase(Locale.ROOT);
+    }
+}
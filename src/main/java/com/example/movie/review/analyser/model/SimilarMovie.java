@@ -1,9 +1,12 @@
 package com.example.movie.review.analyser.model;
 import jakarta.persistence.*;
 import lombok.Data;
+// Keyed by (filmid, similarFilmid); the film lookup reads its links most similar first through the rank index
 @Data @Entity
+@IdClass(SimilarMovieId.class)
+@Table(indexes = @Index(name = "idx_similar_movie_filmid", columnList = "filmid, similarityRank"))
 public class SimilarMovie {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
-    private int filmid;
-    private int similarFilmid;
-}
\ No newline at end of file
+    @Id private int filmid;
+    @Id private int similarFilmid;
+    private int similarityRank; // position among the film's links, from 0
+}
@@ -0,0 +1,10 @@
+package com.example.movie.review.analyser.model;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+@Data @NoArgsConstructor @AllArgsConstructor
+public class SimilarMovieId implements Serializable {
+    private int filmid;
+    private int similarFilmid;
+}
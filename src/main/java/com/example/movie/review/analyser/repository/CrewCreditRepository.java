@@ -1,7 +1,17 @@
 package com.example.movie.review.analyser.repository;
+import com.example.movie.review.analyser.dto.CastMember;
 import com.example.movie.review.analyser.model.CrewCredit;
+import com.example.movie.review.analyser.model.CrewCreditId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
-public interface CrewCreditRepository extends JpaRepository<CrewCredit, Long> {
-    List<CrewCredit> findTop10ByFilmid(int filmid);
-}
\ No newline at end of file
+public interface CrewCreditRepository extends JpaRepository<CrewCredit, CrewCreditId> {
+    List<CrewCredit> findTop10ByFilmidOrderByCreditOrder(int filmid);
+
+    // Credits joined to their people in one round trip, in credit order; credits without a person are dropped
+    @Query("select new com.example.movie.review.analyser.dto.CastMember(p.name, c.characterName, p.profilePath) "
+         + "from CrewCredit c join Person p on p.personid = c.personid where c.filmid = :filmid order by c.creditOrder")
+    List<CastMember> findCastByFilmid(@Param("filmid") int filmid, Pageable pageable);
+}
@@ -1,7 +1,11 @@
 package com.example.movie.review.analyser.repository;
+import com.example.movie.review.analyser.dto.MovieTitleView;
 import com.example.movie.review.analyser.model.Movie;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 public interface MovieRepository extends JpaRepository<Movie, Integer> {
     List<Movie> findTop5ByTitleContainingIgnoreCaseOrderByVoteCountDesc(String title);
+    List<MovieTitleView> findAllProjectedBy();
+    List<Movie> findAllByOrderByVoteCountDesc(Pageable pageable);
 }
\ No newline at end of file
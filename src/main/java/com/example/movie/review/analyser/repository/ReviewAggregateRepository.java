@@ -0,0 +1,28 @@
+package com.example.movie.review.analyser.repository;
+import com.example.movie.review.analyser.model.ReviewAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+public interface ReviewAggregateRepository extends JpaRepository<ReviewAggregate, String> {
+
+    // In-place increments, so concurrent writers never lose each other's updates
+    @Modifying
+    @Query("update ReviewAggregate a set a.reviewCount = a.reviewCount + :reviews, a.ratingSum = a.ratingSum + :rating, "
+         + "a.positiveCount = a.positiveCount + :positive, a.negativeCount = a.negativeCount + :negative, "
+         + "a.neutralCount = a.neutralCount + :neutral, a.pendingCount = a.pendingCount + :pending "
+         + "where a.titleKey = :titleKey")
+    int applyDelta(@Param("titleKey") String titleKey, @Param("reviews") long reviews, @Param("rating") double rating,
+                   @Param("positive") long positive, @Param("negative") long negative,
+                   @Param("neutral") long neutral, @Param("pending") long pending);
+
+    // One row per title: key, count, rating sum, positive, negative, neutral, pending
+    @Query("select r.movieTitleKey, count(r), sum(r.rating), "
+         + "sum(case when r.sentiment = 'Positive' then 1 else 0 end), "
+         + "sum(case when r.sentiment = 'Negative' then 1 else 0 end), "
+         + "sum(case when r.sentiment = 'Neutral' then 1 else 0 end), "
+         + "sum(case when r.sentiment = 'Pending' then 1 else 0 end) "
+         + "from Review r group by r.movieTitleKey")
+    List<Object[]> computeFromReviews();
+}
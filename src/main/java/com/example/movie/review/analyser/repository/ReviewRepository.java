@@ -1,7 +1,21 @@
 package com.example.movie.review.analyser.repository;
 import com.example.movie.review.analyser.model.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByMovieTitleIgnoreCase(String movieTitle);
+    // Title lookups go through the indexed, case-folded key (see ReviewAggregate.keyOf)
+    List<Review> findByMovieTitleKeyOrderByIdDesc(String movieTitleKey, Pageable pageable);
+
+    @Query("select r.id from Review r where r.sentiment = :sentiment order by r.id")
+    List<Long> findIdsBySentiment(@Param("sentiment") String sentiment);
+
+    @Transactional
+    @Modifying
+    @Query("update Review r set r.sentiment = :sentiment where r.id = :id and r.sentiment = :expected")
+    int updateSentiment(@Param("id") Long id, @Param("expected") String expected, @Param("sentiment") String sentiment);
 }
\ No newline at end of file
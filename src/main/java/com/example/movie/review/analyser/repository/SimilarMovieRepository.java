@@ -1,7 +1,8 @@
 package com.example.movie.review.analyser.repository;
 import com.example.movie.review.analyser.model.SimilarMovie;
+import com.example.movie.review.analyser.model.SimilarMovieId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
-public interface SimilarMovieRepository extends JpaRepository<SimilarMovie, Long> {
-List<SimilarMovie> findTop5ByFilmid(int filmid);
-}
\ No newline at end of file
+public interface SimilarMovieRepository extends JpaRepository<SimilarMovie, SimilarMovieId> {
+    List<SimilarMovie> findTop5ByFilmidOrderBySimilarityRank(int filmid);
+}
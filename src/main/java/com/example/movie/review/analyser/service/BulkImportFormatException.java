@@ -0,0 +1,11 @@
+package com.example.movie.review.analyser.service;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Thrown when a bulk upload cannot be read at all (unknown format, CSV header without the required columns); surfaces as 400. */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BulkImportFormatException extends RuntimeException {
+    public BulkImportFormatException(String message) {
+        super(message);
+    }
+}
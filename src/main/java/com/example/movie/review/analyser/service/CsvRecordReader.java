@@ -0,0 +1,71 @@
+package com.example.movie.review.analyser.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, fields optionally in double quotes, quotes
+ * escaped by doubling, and quoted fields may span lines. Reads one record at a time so an upload
+ * is never held in memory as a whole.
+ */
+class CsvRecordReader {
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int lookahead = -2; // -2: nothing buffered
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** The next record, or null at the end of the input. Blank lines are skipped. */
+    String[] next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false, any = false;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (quoted) throw new BulkImportFormatException("Unterminated quoted field at the end of the upload");
+                if (!any) return null;
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            }
+            if (!quoted && (c == '\n' || c == '\r')) {
+                if (c == '\r' && peek() == '\n') read();
+                if (!any) continue; // blank line
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            }
+            any = true;
+            if (quoted) {
+                if (c != '"') field.append((char) c);
+                else if (peek() == '"') field.append((char) read());
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (lookahead != -2) {
+            int c = lookahead;
+            lookahead = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (lookahead == -2) lookahead = reader.read();
+        return lookahead;
+    }
+}
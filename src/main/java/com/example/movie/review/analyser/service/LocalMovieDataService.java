@@ -1,69 +1,170 @@
 package com.example.movie.review.analyser.service;
 
+import com.example.movie.review.analyser.cache.LruCache;
+import com.example.movie.review.analyser.dto.CacheStats;
 import com.example.movie.review.analyser.dto.CastMember;
+import com.example.movie.review.analyser.dto.MovieSummary;
 import com.example.movie.review.analyser.model.*;
 import com.example.movie.review.analyser.repository.*;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+/**
+ * Read side for the movie warehouse. Everything it serves is immutable once DataInitializer has
+ * run (apart from external review labels, which a rescore rewrites), so each lookup goes through
+ * a bounded read-through cache region, optionally warmed with the most voted movies at startup.
+ */
 @Service
 public class LocalMovieDataService {
 
     @Autowired private MovieRepository movieRepository;
-    @Autowired private PersonRepository personRepository;
     @Autowired private CrewCreditRepository crewCreditRepository;
     @Autowired private ExternalReviewRepository externalReviewRepository;
     @Autowired private SimilarMovieRepository similarMovieRepository;
-    
+    @Autowired private MovieTitleIndex movieTitleIndex;
+    @Autowired private SimilarMovieGraph similarMovieGraph;
+
+    @Value("${movie-cache.movies.max-size:50000}") private int movieCacheSize;
+    @Value("${movie-cache.cast.max-size:20000}") private int castCacheSize;
+    @Value("${movie-cache.external-reviews.max-size:20000}") private int externalReviewCacheSize;
+    @Value("${movie-cache.external-reviews.ttl-seconds:300}") private int externalReviewTtlSeconds;
+    @Value("${movie-cache.warm-up.top-movies:500}") private int warmUpTopMovies;
+
+    // --- Cache regions ---
+    private LruCache<Integer, Movie> movies;
+    private LruCache<Integer, List<CastMember>> cast;
+    private LruCache<Integer, List<ExternalReview>> externalReviews;
+
+    @PostConstruct
+    public void initCaches() {
+        movies = new LruCache<>("movies", movieCacheSize, 0);
+        cast = new LruCache<>("cast", castCacheSize, 0);
+        // Their sentiment labels change when any node rescores, so other nodes' copies expire
+        externalReviews = new LruCache<>("external-reviews", externalReviewCacheSize, externalReviewTtlSeconds * 1000L);
+    }
+
+    // The server accepts requests while the warehouse loads, so anything cached before now may be stale.
+    // Warms the caches in the background so startup is not delayed
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        clearCaches();
+        if (warmUpTopMovies <= 0) return;
+        CompletableFuture.runAsync(() -> {
+            long start = System.currentTimeMillis();
+            List<Movie> top = movieRepository.findAllByOrderByVoteCountDesc(PageRequest.of(0, warmUpTopMovies));
+            for (Movie movie : top) {
+                movies.put(movie.getFilmid(), movie);
+                getCastForMovie(movie.getFilmid());
+                getExternalReviews(movie.getFilmid());
+            }
+            System.out.println("Warmed movie caches with the top " + top.size() + " movies in " + (System.currentTimeMillis() - start) + " ms");
+        }).exceptionally(e -> {
+            System.out.println("Movie cache warm-up failed: " + e.getMessage());
+            return null;
+        });
+    }
+
     public List<Movie> searchMovies(String query) {
         if (query == null || query.trim().length() < 3) {
             return Collections.emptyList();
         }
-        return movieRepository.findTop5ByTitleContainingIgnoreCaseOrderByVoteCountDesc(query);
+        int[] filmIds = movieTitleIndex.search(query, 5);
+        if (filmIds == null) {
+            // Index not built yet (still loading) - fall back to the LIKE scan
+            return movieRepository.findTop5ByTitleContainingIgnoreCaseOrderByVoteCountDesc(query);
+        }
+        return findMoviesInOrder(filmIds);
+    }
+
+    // Serves cached movies directly and loads the rest in one query, keeping the requested order
+    private List<Movie> findMoviesInOrder(int[] filmIds) {
+        if (filmIds.length == 0) {
+            return Collections.emptyList();
+        }
+        Movie[] found = new Movie[filmIds.length];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < filmIds.length; i++) {
+            found[i] = movies.get(filmIds[i]);
+            if (found[i] == null) missing.add(filmIds[i]);
+        }
+        if (!missing.isEmpty()) {
+            Map<Integer, Movie> byId = movieRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Movie::getFilmid, Function.identity()));
+            byId.forEach(movies::put);
+            for (int i = 0; i < filmIds.length; i++) {
+                if (found[i] == null) found[i] = byId.get(filmIds[i]);
+            }
+        }
+        List<Movie> ordered = new ArrayList<>(filmIds.length);
+        for (Movie movie : found) {
+            if (movie != null) ordered.add(movie);
+        }
+        return ordered;
     }
     
     public Movie getMovieDetails(int movieId) {
-        return movieRepository.findById(movieId).orElse(null);
+        return movies.get(movieId, id -> movieRepository.findById(id).orElse(null));
     }
 
     public List<CastMember> getCastForMovie(int movieId) {
-        // Find the top 10 credit entries for this movie
-        List<CrewCredit> credits = crewCreditRepository.findTop10ByFilmid(movieId);
-        
-        // For each credit, find the corresponding person and create a CastMember DTO
-        return credits.stream()
-            .map(credit -> {
-                Person person = personRepository.findById(credit.getPersonid()).orElse(null);
-                if (person == null) {
-                    return null; // Skip if the person isn't in our database
-                }
-                return new CastMember(person.getName(), credit.getCharacterName(), person.getProfilePath());
-            })
-            .filter(java.util.Objects::nonNull) // Filter out any nulls
-            .collect(Collectors.toList());
+        // Single CrewCredit x Person join instead of one person lookup per credit
+        return cast.get(movieId, id -> List.copyOf(crewCreditRepository.findCastByFilmid(id, PageRequest.of(0, 10))));
     }
 
     public List<ExternalReview> getExternalReviews(int movieId) {
-        return externalReviewRepository.findTop5ByFilmid(movieId);
+        return externalReviews.get(movieId, id -> List.copyOf(externalReviewRepository.findTop5ByFilmid(id)));
     }
 
-    public List<Movie> getSimilarMovies(int movieId) {
-        // Find the top 5 links for similar movies
-        List<SimilarMovie> similarLinks = similarMovieRepository.findTop5ByFilmid(movieId);
-        
-        // Extract the IDs of the similar movies
-        List<Integer> similarMovieIds = similarLinks.stream()
-            .map(SimilarMovie::getSimilarFilmid)
-            .collect(Collectors.toList());
-        
-        // Find all those movies in our database
-        if (similarMovieIds.isEmpty()) {
-            return Collections.emptyList();
+    public List<MovieSummary> getSimilarMovies(int movieId) {
+        return getSimilarMovies(movieId, 1, 5);
+    }
+
+    /** Similar movies up to {@code hops} links away, most similar first (see {@link SimilarMovieGraph}). */
+    public List<MovieSummary> getSimilarMovies(int movieId, int hops, int limit) {
+        List<MovieSummary> similar = similarMovieGraph.findSimilar(movieId, hops, limit);
+        if (similar != null) {
+            return similar;
         }
-        return movieRepository.findAllById(similarMovieIds);
+        // Graph not built yet (still loading) - direct links only, from the database
+        int[] similarMovieIds = similarMovieRepository.findTop5ByFilmidOrderBySimilarityRank(movieId).stream()
+            .mapToInt(SimilarMovie::getSimilarFilmid)
+            .toArray();
+        return findMoviesInOrder(similarMovieIds).stream()
+            .map(m -> new MovieSummary(m.getFilmid(), m.getTitle(), m.getPosterPath(), m.getReleaseDate(), m.getVoteAverage(), m.getVoteCount()))
+            .toList();
+    }
+
+    public List<CacheStats> getCacheStats() {
+        return getCaches().stream().map(LruCache::getStats).toList();
+    }
+
+    public List<LruCache<Integer, ?>> getCaches() {
+        return List.of(movies, cast, externalReviews);
+    }
+
+    /** Drops the cached external reviews of these movies, e.g. after their labels were rescored. */
+    public void evictExternalReviews(Collection<Integer> movieIds) {
+        movieIds.forEach(externalReviews::remove);
+    }
+
+    /** Drops every cached entry, e.g. after the warehouse has been reloaded. */
+    public void clearCaches() {
+        movies.clear();
+        cast.clear();
+        externalReviews.clear();
     }
-}
\ No newline at end of file
+}
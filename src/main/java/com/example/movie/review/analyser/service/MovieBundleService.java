@@ -0,0 +1,88 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.datasource.ReplicaRoutingDataSource;
+import com.example.movie.review.analyser.dto.CastMember;
+import com.example.movie.review.analyser.dto.MovieBundle;
+import com.example.movie.review.analyser.dto.MovieSummary;
+import com.example.movie.review.analyser.dto.ReviewStats;
+import com.example.movie.review.analyser.loader.WarehouseLoadLock;
+import com.example.movie.review.analyser.metrics.QueryCounter;
+import com.example.movie.review.analyser.model.ExternalReview;
+import com.example.movie.review.analyser.model.Movie;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assembles a {@link MovieBundle} by running all of its lookups concurrently on virtual threads,
+ * so the latency of a bundle is that of its slowest part rather than the sum.
+ */
+@Service
+public class MovieBundleService {
+
+    @Autowired private LocalMovieDataService localMovieDataService;
+    @Autowired private ReviewService reviewService;
+    @Autowired private SentimentAnalysisService sentimentAnalysisService;
+    @Autowired private WarehouseLoadLock loadLock;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Returns null when there is no such movie. */
+    public MovieBundle load(int movieId) {
+        Executor tasks = requestExecutor();
+        CompletableFuture<Movie> movie = CompletableFuture.supplyAsync(() -> localMovieDataService.getMovieDetails(movieId), tasks);
+        // Review stats are keyed by title, so they follow the movie lookup (usually a cache hit)
+        CompletableFuture<ReviewStats> stats = movie.thenApplyAsync(m -> m == null ? null : reviewService.getStats(m.getTitle()), tasks);
+        CompletableFuture<List<CastMember>> cast = CompletableFuture.supplyAsync(() -> localMovieDataService.getCastForMovie(movieId), tasks);
+        CompletableFuture<List<ExternalReview>> externalReviews = CompletableFuture.supplyAsync(() -> localMovieDataService.getExternalReviews(movieId), tasks);
+        CompletableFuture<List<MovieSummary>> similar = CompletableFuture.supplyAsync(() -> localMovieDataService.getSimilarMovies(movieId), tasks);
+        try {
+            CompletableFuture.allOf(stats, cast, externalReviews, similar).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        if (movie.join() == null) return null;
+        return new MovieBundle(movie.join(), cast.join(), externalReviews.join(), similar.join(), stats.join());
+    }
+
+    /**
+     * Weak validator built from the finished bundle and persisted state, so it survives restarts
+     * and agrees across nodes: the warehouse load version, the sentiment model plus the external
+     * review labels (which a rescore rewrites) and the review stats, which change with every review.
+     */
+    public String etag(MovieBundle bundle) {
+        StringBuilder labels = new StringBuilder(sentimentAnalysisService.getModelVersion());
+        for (ExternalReview review : bundle.getExternalReviews()) {
+            labels.append(',').append(review.getId()).append(review.getSentiment());
+        }
+        ReviewStats stats = bundle.getReviewStats();
+        return "W/\"" + bundle.getMovie().getFilmid() + "-" + loadLock.getVersion() + "-" + Integer.toHexString(labels.toString().hashCode()) + "-"
+            + stats.getTotalReviews() + "-" + Long.toHexString(Double.doubleToLongBits(stats.getAverageRating())) + "-"
+            + stats.getDominantSentiment() + "\"";
+    }
+
+    // The replica routing flag and the query counter are thread-local, so the tasks get the request thread's explicitly
+    private Executor requestExecutor() {
+        boolean replicaAllowed = ReplicaRoutingDataSource.isReplicaAllowed();
+        AtomicLong queryCount = QueryCounter.counter();
+        return task -> executor.execute(() -> QueryCounter.callWith(queryCount,
+            () -> ReplicaRoutingDataSource.callWith(replicaAllowed, () -> {
+                task.run();
+                return null;
+            })));
+    }
+}
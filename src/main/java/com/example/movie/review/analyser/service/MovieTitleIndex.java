@@ -0,0 +1,295 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.MovieTitleView;
+import com.example.movie.review.analyser.dto.SearchIndexStats;
+import com.example.movie.review.analyser.loader.WarehouseLoadedEvent;
+import com.example.movie.review.analyser.model.Movie;
+import com.example.movie.review.analyser.repository.MovieRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over normalized (lower-cased, accent-folded) movie titles.
+ * Postings are ordered by vote count, so the first verified hits are already the top results.
+ * Titles inserted after the full build go into a small tail segment, which shadows older copies
+ * of the same films; once it grows it is merged into the main segment off the monitor.
+ */
+@Component
+public class MovieTitleIndex {
+
+    private static final int TAIL_LIMIT = 4096;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    @Autowired private MovieRepository movieRepository;
+
+    private volatile State state = new State(Segment.EMPTY, Segment.EMPTY, false);
+    private final List<Entry> tailEntries = new ArrayList<>(); // guarded by this
+    private boolean merging; // guarded by this
+    private long generation; // guarded by this; bumped by every full rebuild
+    private volatile long buildMillis;
+
+    // Built as soon as a load or snapshot import completes; at ready only if no load happened
+    // (data already present, or another node loaded it).
+    @EventListener(WarehouseLoadedEvent.class)
+    public void onWarehouseLoaded() {
+        rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!isReady()) rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<MovieTitleView> rows = movieRepository.findAllProjectedBy();
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (MovieTitleView row : rows) {
+            if (row.getTitle() != null) entries.add(new Entry(row.getFilmid(), normalize(row.getTitle()), row.getVoteCount()));
+        }
+        tailEntries.clear();
+        generation++;
+        state = new State(Segment.build(entries), Segment.EMPTY, true);
+        buildMillis = (System.nanoTime() - start) / 1_000_000;
+        SearchIndexStats stats = getStats();
+        System.out.println("Title index built: " + stats.getIndexedTitles() + " titles, "
+            + stats.getDistinctTrigrams() + " trigrams, ~" + (stats.getEstimatedBytes() >> 20) + " MB in " + buildMillis + " ms");
+    }
+
+    /** Keeps the index in sync with newly inserted movies. Ignored until the first full build. */
+    public void addAll(Collection<Movie> movies) {
+        Segment main;
+        List<Entry> frozen;
+        long mergeGeneration;
+        synchronized (this) {
+            State current = state;
+            if (!current.ready() || movies.isEmpty()) return;
+            for (Movie movie : movies) {
+                if (movie.getTitle() != null) tailEntries.add(new Entry(movie.getFilmid(), normalize(movie.getTitle()), movie.getVoteCount()));
+            }
+            state = new State(current.main(), Segment.build(merge(List.of(), tailEntries)), true);
+            if (tailEntries.size() <= TAIL_LIMIT || merging) return;
+            merging = true;
+            main = current.main();
+            frozen = List.copyOf(tailEntries);
+            mergeGeneration = generation;
+        }
+        // Searches and other inserts carry on against the current state while the merged segment is built
+        Segment merged = null;
+        try {
+            merged = Segment.build(merge(main.entries(), frozen));
+        } finally {
+            synchronized (this) {
+                merging = false;
+                if (merged != null && mergeGeneration == generation) {
+                    tailEntries.subList(0, frozen.size()).clear(); // keeps titles added during the merge
+                    state = new State(merged, Segment.build(merge(List.of(), tailEntries)), true);
+                }
+            }
+        }
+    }
+
+    // One entry per film; later entries (the tail, in insertion order) replace earlier ones
+    private static List<Entry> merge(List<Entry> main, List<Entry> tail) {
+        Map<Integer, Entry> byFilm = new LinkedHashMap<>(main.size() + tail.size());
+        for (Entry entry : main) byFilm.put(entry.filmid(), entry);
+        for (Entry entry : tail) byFilm.put(entry.filmid(), entry);
+        return new ArrayList<>(byFilm.values());
+    }
+
+    /**
+     * Returns the film ids of the best matches ordered by vote count, or {@code null} when the
+     * index cannot answer the query (not built yet, or fewer than three characters after normalization).
+     */
+    public int[] search(String query, int limit) {
+        State current = state;
+        String key = normalize(query);
+        if (!current.ready() || key.length() < 3) return null;
+        Hits hits = new Hits(limit);
+        current.tail().collect(key, limit, hits, null);
+        current.main().collect(key, limit, hits, current.tail()); // skips films the tail has a newer title for
+        return hits.toFilmIds();
+    }
+
+    public boolean isReady() {
+        return state.ready();
+    }
+
+    public SearchIndexStats getStats() {
+        State current = state;
+        return new SearchIndexStats(current.ready(), current.main().size() + current.tail().size(), current.tail().size(),
+            current.main().grams.length, buildMillis, current.main().estimatedBytes() + current.tail().estimatedBytes());
+    }
+
+    static String normalize(String text) {
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String key, int i) {
+        return ((long) key.charAt(i) << 32) | ((long) key.charAt(i + 1) << 16) | key.charAt(i + 2);
+    }
+
+    private record Entry(int filmid, String key, int voteCount) {}
+
+    private record State(Segment main, Segment tail, boolean ready) {}
+
+    // Immutable block of titles; ordinals are assigned in descending vote-count order. Postings are
+    // kept column-wise: the sorted distinct trigrams, and for grams[i] the ordinals ords[offsets[i] .. offsets[i + 1]).
+    private static final class Segment {
+        static final Segment EMPTY = build(List.of());
+
+        final int[] filmIds;
+        final int[] voteCounts;
+        final String[] keys;
+        final long[] grams;
+        final int[] offsets;
+        final int[] ords;
+        private final int[] sortedFilmIds; // for contains()
+
+        private Segment(int[] filmIds, int[] voteCounts, String[] keys, long[] grams, int[] offsets, int[] ords) {
+            this.filmIds = filmIds;
+            this.voteCounts = voteCounts;
+            this.keys = keys;
+            this.grams = grams;
+            this.offsets = offsets;
+            this.ords = ords;
+            this.sortedFilmIds = filmIds.clone();
+            Arrays.sort(sortedFilmIds);
+        }
+
+        static Segment build(List<Entry> input) {
+            Entry[] sorted = input.toArray(new Entry[0]);
+            Arrays.sort(sorted, Comparator.comparingInt(Entry::voteCount).reversed().thenComparingInt(Entry::filmid));
+            int n = sorted.length;
+            int[] filmIds = new int[n];
+            int[] voteCounts = new int[n];
+            String[] keys = new String[n];
+            int occurrences = 0;
+            for (int ord = 0; ord < n; ord++) {
+                filmIds[ord] = sorted[ord].filmid();
+                voteCounts[ord] = sorted[ord].voteCount();
+                keys[ord] = sorted[ord].key();
+                occurrences += Math.max(0, keys[ord].length() - 2);
+            }
+            // Distinct trigrams, sorted
+            long[] all = new long[occurrences];
+            int next = 0;
+            for (String key : keys) {
+                for (int i = 0; i + 3 <= key.length(); i++) all[next++] = trigram(key, i);
+            }
+            Arrays.sort(all);
+            int distinct = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) all[distinct++] = all[i];
+            }
+            long[] grams = Arrays.copyOf(all, distinct);
+            // Count, then fill; a trigram repeated within one title is posted once
+            int[] offsets = new int[distinct + 1];
+            int[] lastOrd = new int[distinct];
+            Arrays.fill(lastOrd, -1);
+            for (int ord = 0; ord < n; ord++) {
+                for (int i = 0; i + 3 <= keys[ord].length(); i++) {
+                    int g = Arrays.binarySearch(grams, trigram(keys[ord], i));
+                    if (lastOrd[g] != ord) {
+                        lastOrd[g] = ord;
+                        offsets[g + 1]++;
+                    }
+                }
+            }
+            for (int g = 0; g < distinct; g++) offsets[g + 1] += offsets[g];
+            int[] ords = new int[offsets[distinct]];
+            int[] fill = Arrays.copyOf(offsets, distinct);
+            Arrays.fill(lastOrd, -1);
+            for (int ord = 0; ord < n; ord++) {
+                for (int i = 0; i + 3 <= keys[ord].length(); i++) {
+                    int g = Arrays.binarySearch(grams, trigram(keys[ord], i));
+                    if (lastOrd[g] != ord) {
+                        lastOrd[g] = ord;
+                        ords[fill[g]++] = ord;
+                    }
+                }
+            }
+            return new Segment(filmIds, voteCounts, keys, grams, offsets, ords);
+        }
+
+        int size() {
+            return filmIds.length;
+        }
+
+        boolean contains(int filmid) {
+            return Arrays.binarySearch(sortedFilmIds, filmid) >= 0;
+        }
+
+        List<Entry> entries() {
+            List<Entry> entries = new ArrayList<>(size() + TAIL_LIMIT + 1);
+            for (int ord = 0; ord < size(); ord++) entries.add(new Entry(filmIds[ord], keys[ord], voteCounts[ord]));
+            return entries;
+        }
+
+        void collect(String key, int limit, Hits hits, Segment shadowing) {
+            int rarest = -1;
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                int g = Arrays.binarySearch(grams, trigram(key, i));
+                if (g < 0) return;
+                if (rarest < 0 || offsets[g + 1] - offsets[g] < offsets[rarest + 1] - offsets[rarest]) rarest = g;
+            }
+            int found = 0;
+            for (int p = offsets[rarest]; p < offsets[rarest + 1]; p++) {
+                int ord = ords[p];
+                if (shadowing != null && shadowing.contains(filmIds[ord])) continue;
+                if (keys[ord].contains(key) && hits.offer(filmIds[ord], voteCounts[ord]) && ++found == limit) return;
+            }
+        }
+
+        // Rough retained size: id/vote/key arrays, title strings and the posting arrays.
+        long estimatedBytes() {
+            long bytes = 4L * (16 + 4L * size());
+            for (String key : keys) bytes += 40 + key.length();
+            return bytes + 8L * grams.length + 4L * offsets.length + 4L * ords.length;
+        }
+    }
+
+    // Top-N accumulator across segments, de-duplicated by film id.
+    private static final class Hits {
+        private final int limit;
+        private final int[] filmIds;
+        private final int[] voteCounts;
+        private int size;
+
+        Hits(int limit) {
+            this.limit = limit;
+            this.filmIds = new int[limit * 2];
+            this.voteCounts = new int[limit * 2];
+        }
+
+        boolean offer(int filmid, int voteCount) {
+            for (int i = 0; i < size; i++) if (filmIds[i] == filmid) return false;
+            filmIds[size] = filmid;
+            voteCounts[size] = voteCount;
+            size++;
+            return true;
+        }
+
+        int[] toFilmIds() {
+            // Insertion sort: at most 2 * limit entries.
+            for (int i = 1; i < size; i++) {
+                int id = filmIds[i], votes = voteCounts[i], j = i - 1;
+                while (j >= 0 && voteCounts[j] < votes) {
+                    filmIds[j + 1] = filmIds[j];
+                    voteCounts[j + 1] = voteCounts[j];
+                    j--;
+                }
+                filmIds[j + 1] = id;
+                voteCounts[j + 1] = votes;
+            }
+            return Arrays.copyOf(filmIds, Math.min(size, limit));
+        }
+    }
+}
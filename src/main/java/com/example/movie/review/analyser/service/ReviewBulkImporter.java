@@ -0,0 +1,231 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.BulkImportResult;
+import com.example.movie.review.analyser.model.Review;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming bulk review import. The upload (NDJSON, one review object per line, or CSV with a
+ * header row) is read record by record on the request thread and cut into batches; each batch is
+ * scored with one {@link SentimentAnalysisService#analyzeBatch} call and inserted with one JDBC
+ * batch on a small worker pool. At most two batches per worker are in flight, so reading pauses
+ * while the workers catch up and the body is never buffered. Invalid rows are counted and
+ * reported rather than failing the upload; batches already written stay committed if the client
+ * disconnects.
+ */
+@Service
+public class ReviewBulkImporter {
+
+    private static final int MAX_ERRORS = 50;
+    private static final int MAX_TITLE_LENGTH = 255; // Review.movieTitle (and movieTitleKey) column length
+    private static final int MAX_TEXT_LENGTH = 2000; // Review.reviewText column length
+
+    @Autowired private SentimentAnalysisService sentimentAnalysisService;
+    @Autowired private ReviewService reviewService;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${reviews.bulk.batch-size:500}") private int batchSize;
+    @Value("${reviews.bulk.workers:2}") private int workers;
+
+    private ExecutorService executor;
+    private ObjectReader reviewReader;
+    private Counter importedRows;
+    private Counter rejectedRows;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("review-import-"));
+        reviewReader = objectMapper.readerFor(Review.class);
+        importedRows = Counter.builder("reviews.bulk.rows").tag("outcome", "imported").register(meterRegistry);
+        rejectedRows = Counter.builder("reviews.bulk.rows").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public BulkImportResult importReviews(InputStream body, String contentType) throws IOException {
+        boolean csv = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        Upload upload = new Upload();
+        try {
+            if (csv) readCsv(reader, upload);
+            else readNdjson(reader, upload);
+            upload.flush();
+        } finally {
+            upload.awaitWriters();
+        }
+        return upload.result();
+    }
+
+    private void readNdjson(BufferedReader reader, Upload upload) throws IOException {
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            try {
+                Review review = reviewReader.readValue(line);
+                upload.add(review, lineNo);
+            } catch (JsonProcessingException e) {
+                upload.reject(lineNo, "invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Upload upload) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        String[] header = csv.next();
+        if (header == null) return;
+        int title = -1, text = -1, rating = -1;
+        for (int i = 0; i < header.length; i++) {
+            switch (header[i].replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT)) {
+                case "movietitle", "title" -> title = i;
+                case "reviewtext", "review", "text" -> text = i;
+                case "rating" -> rating = i;
+                default -> { }
+            }
+        }
+        if (title < 0 || text < 0) {
+            throw new BulkImportFormatException("CSV header needs movieTitle and reviewText columns (rating is optional), got " + String.join(",", header));
+        }
+        String[] record;
+        long recordNo = 0;
+        while (true) {
+            try {
+                if ((record = csv.next()) == null) break;
+            } catch (BulkImportFormatException e) {
+                upload.reject(recordNo + 1, e.getMessage());
+                break;
+            }
+            recordNo++;
+            Review review = new Review();
+            review.setMovieTitle(field(record, title));
+            review.setReviewText(field(record, text));
+            String ratingText = field(record, rating);
+            try {
+                review.setRating(ratingText == null || ratingText.isBlank() ? 0 : Double.parseDouble(ratingText.trim()));
+            } catch (NumberFormatException e) {
+                upload.reject(recordNo, "rating is not a number: " + ratingText);
+                continue;
+            }
+            upload.add(review, recordNo);
+        }
+    }
+
+    private static String field(String[] record, int index) {
+        return index >= 0 && index < record.length ? record[index] : null;
+    }
+
+    private static String problemWith(Review review) {
+        if (review.getMovieTitle() == null || review.getMovieTitle().isBlank()) return "movieTitle is required";
+        if (review.getMovieTitle().length() > MAX_TITLE_LENGTH) return "movieTitle is longer than " + MAX_TITLE_LENGTH + " characters";
+        if (review.getReviewText() == null || review.getReviewText().isBlank()) return "reviewText is required";
+        if (review.getReviewText().length() > MAX_TEXT_LENGTH) return "reviewText is longer than " + MAX_TEXT_LENGTH + " characters";
+        return null;
+    }
+
+    // State of one upload, shared between the reading request thread and the workers
+    private final class Upload {
+        private final long startNanos = System.nanoTime();
+        private final Semaphore inFlight = new Semaphore(workers * 2);
+        private final LongAdder received = new LongAdder();
+        private final LongAdder imported = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private List<Review> batch = new ArrayList<>(batchSize);
+        private long batchFirstRow;
+
+        void add(Review review, long rowNo) {
+            String problem = problemWith(review);
+            if (problem != null) {
+                reject(rowNo, problem);
+                return;
+            }
+            review.setId(null);
+            received.increment();
+            if (batch.isEmpty()) batchFirstRow = rowNo;
+            batch.add(review);
+            if (batch.size() >= batchSize) flush();
+        }
+
+        void reject(long rowNo, String reason) {
+            received.increment();
+            rejected.increment();
+            rejectedRows.increment();
+            error("row " + rowNo + ": " + reason);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            List<Review> rows = batch;
+            long firstRow = batchFirstRow;
+            batch = new ArrayList<>(batchSize);
+            inFlight.acquireUninterruptibly();
+            try {
+                executor.execute(() -> {
+                    try {
+                        write(rows);
+                        imported.add(rows.size());
+                        importedRows.increment(rows.size());
+                    } catch (RuntimeException e) {
+                        rejected.add(rows.size());
+                        rejectedRows.increment(rows.size());
+                        error("rows " + firstRow + "+ (batch of " + rows.size() + "): " + e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        private void write(List<Review> rows) {
+            List<String> labels = sentimentAnalysisService.analyzeBatch(rows.stream().map(Review::getReviewText).toList());
+            for (int i = 0; i < rows.size(); i++) rows.get(i).setSentiment(labels.get(i));
+            reviewService.saveAll(rows);
+        }
+
+        void awaitWriters() {
+            inFlight.acquireUninterruptibly(workers * 2);
+            inFlight.release(workers * 2);
+        }
+
+        private void error(String message) {
+            if (errors.size() < MAX_ERRORS) errors.add(message);
+        }
+
+        BulkImportResult result() {
+            double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+            return new BulkImportResult(received.sum(), imported.sum(), rejected.sum(), List.copyOf(errors), seconds, imported.sum() / seconds);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.RescoreProgress;
+import com.example.movie.review.analyser.model.Review;
+import com.example.movie.review.analyser.service.ReviewService.SentimentChange;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Re-scores stored {@code review} and {@code external_review} rows with the current sentiment model.
+ * Rows are walked in id order one page at a time (keyset pagination, so a page costs the same at
+ * any depth); changed labels and the page's checkpoint commit together, keyed by model version,
+ * so an interrupted run resumes after the last committed id and a finished one is not repeated
+ * until the model changes. The checkpoint row is also the claim: a node runs a table only while its
+ * id is in {@code claimed_by} and its heartbeat (stamped with every page) is within the lease, so
+ * nodes sharing a database never rescore the same table at once, and a claim whose node died is
+ * taken over. Cached external reviews of the films a page changed are evicted once it commits, and a {@link SentimentRescoredEvent} follows each finished table (the warehouse snapshot
+ * is re-exported on it). Pending user reviews are left to {@link ReviewScoringWorker}.
+ */
+@Service
+public class ReviewRescoringJob {
+
+    public static final List<String> TABLES = List.of("review", "external_review");
+
+    private static final String STALE = "heartbeat < CURRENT_TIMESTAMP - CAST(? AS INT) * INTERVAL '1' SECOND";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private SentimentAnalysisService sentimentAnalysisService;
+    @Autowired private ReviewService reviewService;
+    @Autowired private LocalMovieDataService localMovieDataService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Value("${reviews.rescore.page-size:500}") private int pageSize;
+    @Value("${reviews.rescore.lease-seconds:600}") private int leaseSeconds;
+    @Value("${warehouse.node-id:}") private String nodeId;
+
+    private ExecutorService executor;
+    private final Map<String, Boolean> running = new ConcurrentHashMap<>(); // queued or running on this node
+    private volatile boolean tableReady;
+
+    @PostConstruct
+    public void start() {
+        if (nodeId.isBlank()) nodeId = ManagementFactory.getRuntimeMXBean().getName(); // pid@hostname
+        executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("review-rescorer-"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Queues a run over the given tables, a subset of {@link #TABLES} (a table already being rescored is not queued twice). */
+    public List<RescoreProgress> submit(List<String> tables) {
+        ensureTable();
+        for (String table : tables) {
+            if (running.putIfAbsent(table, Boolean.TRUE) != null) continue;
+            executor.execute(() -> {
+                try {
+                    run(table);
+                } catch (RuntimeException e) {
+                    System.out.println("Rescoring " + table + " failed (resumes from its checkpoint on the next run): " + e.getMessage());
+                } finally {
+                    running.remove(table);
+                }
+            });
+        }
+        return getProgress();
+    }
+
+    /** Checkpoints for the current model version; {@code running} also covers a run claimed by another node. */
+    public List<RescoreProgress> getProgress() {
+        ensureTable();
+        String version = sentimentAnalysisService.getModelVersion();
+        List<RescoreProgress> progress = new ArrayList<>();
+        for (String table : TABLES) {
+            List<RescoreProgress> rows = jdbcTemplate.query(
+                "SELECT last_id, scanned, changed, complete, claimed_by IS NOT NULL AND NOT (" + STALE + ") "
+                    + "FROM rescore_checkpoint WHERE table_name = ? AND model_version = ?",
+                (rs, i) -> new RescoreProgress(table, version, rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getBoolean(4),
+                    running.containsKey(table) || rs.getBoolean(5)),
+                leaseSeconds, table, version);
+            progress.add(rows.isEmpty() ? new RescoreProgress(table, version, 0, 0, 0, false, running.containsKey(table)) : rows.get(0));
+        }
+        return progress;
+    }
+
+    private void run(String table) {
+        String version = sentimentAnalysisService.getModelVersion();
+        try {
+            jdbcTemplate.update("INSERT INTO rescore_checkpoint (table_name, model_version, last_id, scanned, changed, complete) VALUES (?, ?, 0, 0, 0, FALSE)",
+                table, version);
+        } catch (DuplicateKeyException e) {
+            // Started before, here or on another node
+        }
+        int claimed = jdbcTemplate.update("UPDATE rescore_checkpoint SET claimed_by = ?, heartbeat = CURRENT_TIMESTAMP "
+            + "WHERE table_name = ? AND model_version = ? AND complete = FALSE AND (claimed_by IS NULL OR claimed_by = ? OR " + STALE + ")",
+            nodeId, table, version, nodeId, leaseSeconds);
+        if (claimed == 0) {
+            List<String> holders = jdbcTemplate.queryForList("SELECT claimed_by FROM rescore_checkpoint WHERE table_name = ? AND model_version = ? AND complete = FALSE",
+                String.class, table, version);
+            System.out.println("Rescoring " + table + ": " + (holders.isEmpty() ? "already done for model " + version : "already running on " + holders.get(0)));
+            return;
+        }
+        try {
+            rescore(table, version);
+        } finally {
+            jdbcTemplate.update("UPDATE rescore_checkpoint SET claimed_by = NULL WHERE table_name = ? AND model_version = ? AND claimed_by = ?",
+                table, version, nodeId);
+        }
+    }
+
+    // Runs while this node holds the table's claim; read the checkpoint only now, another node may have advanced it
+    private void rescore(String table, String version) {
+        RescoreProgress progress = getProgress().stream().filter(p -> p.getTable().equals(table)).findFirst().orElseThrow();
+        System.out.println("Rescoring " + table + " with model " + version + (progress.getLastId() > 0 ? " from id " + progress.getLastId() : ""));
+        boolean review = table.equals("review");
+        String select = review
+            ? "SELECT id, review_text, sentiment, movie_title_key FROM review WHERE id > ? AND sentiment <> '" + Review.PENDING + "' ORDER BY id LIMIT ?"
+            : "SELECT id, content, sentiment, filmid FROM external_review WHERE id > ? ORDER BY id LIMIT ?";
+        long lastId = progress.getLastId(), scanned = progress.getScanned(), changed = progress.getChanged();
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Object[]> page = jdbcTemplate.query(select,
+                (rs, i) -> new Object[] {rs.getLong(1), rs.getString(2), rs.getString(3), rs.getObject(4)}, lastId, pageSize);
+            if (page.isEmpty()) break;
+            List<String> labels = sentimentAnalysisService.analyzeBatch(page.stream().map(r -> (String) r[1]).toList());
+            List<SentimentChange> changes = new ArrayList<>();
+            List<Integer> changeMovieIds = new ArrayList<>();
+            for (int i = 0; i < page.size(); i++) {
+                Object[] row = page.get(i);
+                if (labels.get(i).equals(row[2])) continue;
+                changes.add(new SentimentChange((Long) row[0], review ? (String) row[3] : null, (String) row[2], labels.get(i)));
+                if (!review) changeMovieIds.add(((Number) row[3]).intValue());
+            }
+            long pageLastId = (Long) page.get(page.size() - 1)[0];
+            long pageScanned = scanned + page.size();
+            Set<Integer> movieIds = new HashSet<>();
+            Integer pageChanged = transactionTemplate.execute(status -> {
+                int count = review ? reviewService.updateSentiments(changes) : updateExternal(changes, changeMovieIds, movieIds);
+                // Also the heartbeat; no row means the claim was taken over, and the page is rolled back
+                int owned = jdbcTemplate.update("UPDATE rescore_checkpoint SET last_id = ?, scanned = ?, changed = changed + ?, heartbeat = CURRENT_TIMESTAMP "
+                    + "WHERE table_name = ? AND model_version = ? AND claimed_by = ?", pageLastId, pageScanned, count, table, version, nodeId);
+                if (owned == 0) throw new IllegalStateException("lost the claim on " + table + " to another node");
+                return count;
+            });
+            localMovieDataService.evictExternalReviews(movieIds); // this node at once, the others when their entries expire
+            lastId = pageLastId;
+            scanned = pageScanned;
+            changed += pageChanged;
+        }
+        if (Thread.currentThread().isInterrupted()) return;
+        jdbcTemplate.update("UPDATE rescore_checkpoint SET complete = TRUE WHERE table_name = ? AND model_version = ? AND claimed_by = ?", table, version, nodeId);
+        System.out.println("Rescored " + table + ": " + scanned + " rows, " + changed + " labels changed");
+        eventPublisher.publishEvent(new SentimentRescoredEvent(table, version, changed));
+    }
+
+    // Adds the films of the rows actually updated to changedMovieIds; a row already carrying the label is left alone
+    private int updateExternal(List<SentimentChange> changes, List<Integer> movieIds, Set<Integer> changedMovieIds) {
+        if (changes.isEmpty()) return 0;
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE external_review SET sentiment = ? WHERE id = ? AND sentiment IS DISTINCT FROM ?",
+            changes.stream().map(c -> new Object[] {c.to(), c.id(), c.to()}).toList());
+        int count = 0;
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) continue;
+            changedMovieIds.add(movieIds.get(i));
+            count++;
+        }
+        return count;
+    }
+
+    private void ensureTable() {
+        if (tableReady) return;
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS rescore_checkpoint ("
+            + "table_name VARCHAR(64) NOT NULL, model_version VARCHAR(255) NOT NULL, last_id BIGINT NOT NULL, "
+            + "scanned BIGINT NOT NULL, changed BIGINT NOT NULL, complete BOOLEAN NOT NULL, "
+            + "claimed_by VARCHAR(255), heartbeat TIMESTAMP WITH TIME ZONE, "
+            + "PRIMARY KEY (table_name, model_version))");
+        // Tables created before runs were claimed
+        jdbcTemplate.execute("ALTER TABLE rescore_checkpoint ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(255)");
+        jdbcTemplate.execute("ALTER TABLE rescore_checkpoint ADD COLUMN IF NOT EXISTS heartbeat TIMESTAMP WITH TIME ZONE");
+        tableReady = true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.loader.WarehouseLoadLock;
+import com.example.movie.review.analyser.model.Review;
+import com.example.movie.review.analyser.repository.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Deferred sentiment scoring: reviews are saved as {@link Review#PENDING} and their ids queued here.
+ * Worker threads drain the queue in batches, score them in one CoreNLP pass and update the rows.
+ * Reviews left pending by a restart are re-queued once the application is ready.
+ */
+@Service
+public class ReviewScoringWorker {
+
+    @Autowired private ReviewRepository reviewRepository;
+    @Autowired private SentimentAnalysisService sentimentAnalysisService;
+    @Autowired private ReviewService reviewService;
+
+    @Value("${reviews.scoring.workers:2}") private int workers;
+    @Value("${reviews.scoring.batch-size:16}") private int batchSize;
+    @Value("${reviews.scoring.queue-capacity:10000}") private int queueCapacity;
+
+    private BlockingQueue<Long> queue;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("review-scorer-"));
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Still under the startup lock (released at WarehouseLoadLock.RELEASE_ORDER), so nodes sharing a
+    // database re-queue one at a time; a review queued twice is scored once (completeScoring is conditional)
+    @Order(WarehouseLoadLock.RELEASE_ORDER - 1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeuePending() {
+        List<Long> pending = reviewRepository.findIdsBySentiment(Review.PENDING);
+        if (pending.isEmpty()) return;
+        System.out.println("Re-queueing " + pending.size() + " reviews still waiting for sentiment scoring");
+        for (Long id : pending) {
+            if (!queue.offer(id)) break; // the rest are picked up on the next start
+        }
+    }
+
+    /** Saves the review as pending and schedules scoring. Scores inline when the queue is full. */
+    public Review submit(Review review) {
+        review.setSentiment(Review.PENDING);
+        Review saved = reviewService.save(review);
+        if (!queue.offer(saved.getId())) {
+            reviewService.completeScoring(saved, sentimentAnalysisService.analyzeSentiment(saved.getReviewText()));
+        }
+        return saved;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ids = new ArrayList<>(batchSize);
+            try {
+                ids.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(ids, batchSize - 1);
+            try {
+                score(ids);
+            } catch (RuntimeException e) {
+                // Rows stay pending and are retried on the next start
+                System.out.println("Failed to score reviews " + ids + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void score(List<Long> ids) {
+        List<Review> reviews = reviewRepository.findAllById(ids).stream()
+            .filter(r -> Review.PENDING.equals(r.getSentiment()))
+            .toList();
+        if (reviews.isEmpty()) return;
+        List<String> labels = sentimentAnalysisService.analyzeBatch(reviews.stream().map(Review::getReviewText).toList());
+        for (int i = 0; i < reviews.size(); i++) {
+            reviewService.completeScoring(reviews.get(i), labels.get(i));
+        }
+    }
+}
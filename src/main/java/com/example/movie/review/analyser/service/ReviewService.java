@@ -0,0 +1,213 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.datasource.ReplicaRoutingDataSource;
+import com.example.movie.review.analyser.dto.ReviewStats;
+import com.example.movie.review.analyser.loader.LoadCheckpointStore;
+import com.example.movie.review.analyser.model.Review;
+import com.example.movie.review.analyser.model.ReviewAggregate;
+import com.example.movie.review.analyser.repository.ReviewAggregateRepository;
+import com.example.movie.review.analyser.repository.ReviewRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes user reviews together with their per-title {@link ReviewAggregate}, so that the
+ * stats endpoint reads a single row instead of every review of the title.
+ */
+@Service
+public class ReviewService implements SmartInitializingSingleton {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String AGGREGATES_BUILT = "review_aggregate"; // load_checkpoint marker
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+    private static final String INSERT_SQL = "INSERT INTO review (movie_title, movie_title_key, review_text, sentiment, rating) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired private ReviewRepository reviewRepository;
+    @Autowired private ReviewAggregateRepository aggregateRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private LoadCheckpointStore checkpointStore;
+
+    /** Inserts a new review; a client-supplied id is ignored, so an existing review is never overwritten. */
+    public Review save(Review review) {
+        review.setId(null);
+        String titleKey = ReviewAggregate.keyOf(review.getMovieTitle());
+        ensureAggregate(titleKey);
+        return transactionTemplate.execute(status -> {
+            Review saved = reviewRepository.save(review);
+            applyDelta(titleKey, 1, saved.getRating(), saved.getSentiment(), +1);
+            return saved;
+        });
+    }
+
+    /** Inserts scored reviews in one JDBC batch and folds them into the aggregates in the same transaction. */
+    public void saveAll(List<Review> reviews) {
+        Map<String, Delta> deltas = new HashMap<>();
+        List<Object[]> args = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            String titleKey = ReviewAggregate.keyOf(review.getMovieTitle());
+            args.add(new Object[] {review.getMovieTitle(), titleKey, review.getReviewText(), review.getSentiment(), review.getRating()});
+            deltas.computeIfAbsent(titleKey, k -> new Delta()).add(1, review.getRating(), review.getSentiment(), +1);
+        }
+        deltas.keySet().forEach(this::ensureAggregate);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, args);
+            deltas.forEach(this::applyDelta);
+        });
+    }
+
+    /**
+     * Replaces the sentiment of scored reviews, e.g. after a model change. A review whose sentiment
+     * no longer matches {@code from} (rescored or edited meanwhile) is left alone.
+     * Joins the caller's transaction if there is one; returns how many reviews changed.
+     */
+    public int updateSentiments(List<SentimentChange> changes) {
+        if (changes.isEmpty()) return 0;
+        return transactionTemplate.execute(status -> {
+            int[] updated = jdbcTemplate.batchUpdate("UPDATE review SET sentiment = ? WHERE id = ? AND sentiment = ?",
+                changes.stream().map(c -> new Object[] {c.to(), c.id(), c.from()}).toList());
+            Map<String, Delta> deltas = new HashMap<>();
+            int changed = 0;
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) continue;
+                SentimentChange change = changes.get(i);
+                Delta delta = deltas.computeIfAbsent(change.titleKey(), k -> new Delta());
+                delta.add(0, 0, change.from(), -1);
+                delta.add(0, 0, change.to(), +1);
+                changed++;
+            }
+            deltas.forEach(this::applyDelta);
+            return changed;
+        });
+    }
+
+    /** Stores the scored sentiment of a pending review; a no-op if it was already scored. */
+    public boolean completeScoring(Review review, String sentiment) {
+        String titleKey = ReviewAggregate.keyOf(review.getMovieTitle());
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (reviewRepository.updateSentiment(review.getId(), Review.PENDING, sentiment) == 0) return false;
+            applyDelta(titleKey, 0, 0, Review.PENDING, -1);
+            applyDelta(titleKey, 0, 0, sentiment, +1);
+            review.setSentiment(sentiment);
+            return true;
+        }));
+    }
+
+    // Always from the primary: the aggregates change with every review (and feed the bundle ETag)
+    public ReviewStats getStats(String title) {
+        ReviewAggregate aggregate = ReplicaRoutingDataSource.onPrimary(
+            () -> aggregateRepository.findById(ReviewAggregate.keyOf(title)).orElse(null));
+        if (aggregate == null || aggregate.getReviewCount() == 0) {
+            return new ReviewStats(0, 0.0, "N/A");
+        }
+        return new ReviewStats(aggregate.getReviewCount(),
+            aggregate.getRatingSum() / aggregate.getReviewCount(), dominantSentiment(aggregate));
+    }
+
+    public List<Review> getReviews(String title, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return reviewRepository.findByMovieTitleKeyOrderByIdDesc(ReviewAggregate.keyOf(title), pageRequest);
+    }
+
+    // Fills in the title keys and aggregates for databases that already had reviews before they existed.
+    // Runs once all beans exist but before the web server starts, so no review is written meanwhile;
+    // the rebuild replaces any partial aggregates and commits together with its completion marker.
+    @Override
+    public void afterSingletonsInstantiated() {
+        checkpointStore.ensureTable();
+        if (!checkpointStore.isComplete(AGGREGATES_BUILT)) rebuildAggregates();
+    }
+
+    // Keys older rows with the same Java case folding as new reviews (SQL lower() may fold differently), one page at a time
+    private int backfillTitleKeys() {
+        int keyed = 0;
+        while (true) {
+            List<Object[]> page = jdbcTemplate.query("SELECT id, movie_title FROM review WHERE movie_title_key IS NULL ORDER BY id LIMIT ?",
+                (rs, i) -> new Object[] {ReviewAggregate.keyOf(rs.getString(2)), rs.getLong(1)}, BACKFILL_PAGE_SIZE);
+            if (page.isEmpty()) return keyed;
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate("UPDATE review SET movie_title_key = ? WHERE id = ? AND movie_title_key IS NULL", page));
+            keyed += page.size();
+        }
+    }
+
+    /** Recomputes every title's aggregate from the reviews table (after bulk SQL writes that bypass {@link #save}). */
+    public void rebuildAggregates() {
+        int keyed = backfillTitleKeys();
+        if (keyed > 0) System.out.println("Backfilled title keys for " + keyed + " reviews.");
+        int titles = transactionTemplate.execute(status -> {
+            aggregateRepository.deleteAllInBatch();
+            List<ReviewAggregate> aggregates = new ArrayList<>();
+            for (Object[] row : aggregateRepository.computeFromReviews()) {
+                ReviewAggregate aggregate = new ReviewAggregate((String) row[0]);
+                aggregate.setReviewCount(((Number) row[1]).longValue());
+                aggregate.setRatingSum(((Number) row[2]).doubleValue());
+                aggregate.setPositiveCount(((Number) row[3]).longValue());
+                aggregate.setNegativeCount(((Number) row[4]).longValue());
+                aggregate.setNeutralCount(((Number) row[5]).longValue());
+                aggregate.setPendingCount(((Number) row[6]).longValue());
+                aggregates.add(aggregate);
+            }
+            aggregateRepository.saveAll(aggregates);
+            checkpointStore.markComplete(AGGREGATES_BUILT);
+            return aggregates.size();
+        });
+        if (titles > 0) System.out.println("Built review aggregates for " + titles + " titles.");
+    }
+
+    // Created in its own transaction; losing the race to a concurrent insert is fine
+    private void ensureAggregate(String titleKey) {
+        if (aggregateRepository.existsById(titleKey)) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> aggregateRepository.saveAndFlush(new ReviewAggregate(titleKey)));
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the row first
+        }
+    }
+
+    private void applyDelta(String titleKey, long reviews, double rating, String sentiment, long change) {
+        aggregateRepository.applyDelta(titleKey, reviews, rating,
+            "Positive".equals(sentiment) ? change : 0,
+            "Negative".equals(sentiment) ? change : 0,
+            "Neutral".equals(sentiment) ? change : 0,
+            Review.PENDING.equals(sentiment) ? change : 0);
+    }
+
+    private void applyDelta(String titleKey, Delta delta) {
+        aggregateRepository.applyDelta(titleKey, delta.reviews, delta.rating, delta.positive, delta.negative, delta.neutral, delta.pending);
+    }
+
+    private static String dominantSentiment(ReviewAggregate aggregate) {
+        long positive = aggregate.getPositiveCount(), negative = aggregate.getNegativeCount(), neutral = aggregate.getNeutralCount();
+        if (positive + negative + neutral == 0) return Review.PENDING; // nothing scored yet
+        if (positive >= negative && positive >= neutral) return "Positive";
+        return negative >= neutral ? "Negative" : "Neutral";
+    }
+
+    public record SentimentChange(long id, String titleKey, String from, String to) {}
+
+    // Summed aggregate changes for one title
+    private static final class Delta {
+        long reviews, positive, negative, neutral, pending;
+        double rating;
+
+        void add(long reviews, double rating, String sentiment, long change) {
+            this.reviews += reviews;
+            this.rating += rating;
+            if ("Positive".equals(sentiment)) positive += change;
+            else if ("Negative".equals(sentiment)) negative += change;
+            else if ("Neutral".equals(sentiment)) neutral += change;
+            else if (Review.PENDING.equals(sentiment)) pending += change;
+        }
+    }
+}
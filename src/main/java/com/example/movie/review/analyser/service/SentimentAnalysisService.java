@@ -1,4 +1,8 @@
 package com.example.movie.review.analyser.service;
+import com.example.movie.review.analyser.cache.LruCache;
+import com.example.movie.review.analyser.cache.SentimentCache;
+import com.example.movie.review.analyser.cache.SentimentCache.TextHash;
+import com.example.movie.review.analyser.dto.CacheStats;
 import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.neural.rnn.RNNCoreAnnotations;
 import edu.stanford.nlp.pipeline.Annotation;
@@ -6,39 +10,289 @@ import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.sentiment.SentimentCoreAnnotations;
 import edu.stanford.nlp.trees.Tree;
 import edu.stanford.nlp.util.CoreMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
 
+/**
+ * Sentiment engine around one shared CoreNLP pipeline. The tokenize/ssplit/parse/sentiment
+ * annotators are stateless per annotation and CoreNLP documents {@code annotate} as thread-safe,
+ * so instead of duplicating the (large) models per worker, a semaphore caps how many documents
+ * are parsed at once - one per core by default. Interactive calls wait a bounded time for a
+ * permit and are rejected when the engine stays saturated; batch calls block, but never hold the
+ * {@code sentiment.interactive-reserved} slots and give theirs back after every chunk.
+ * Both paths consult a content-hash cache first, so repeated texts are never parsed twice.
+ * <p>
+ * In front of all that can sit a {@link SentimentLexicon} fast path: in {@code hybrid} mode texts the
+ * lexicon scores at or beyond {@code sentiment.lexicon.threshold}, and of which it knows at least
+ * {@code sentiment.lexicon.min-coverage} of the tokens, are labelled without touching CoreNLP and
+ * only the rest are escalated; {@code lexicon} mode never parses (CoreNLP is not even loaded) and
+ * {@code corenlp} mode, the default until a trained lexicon is configured, always does.
+ */
 @Service
 public class SentimentAnalysisService {
+    private enum Mode { HYBRID, LEXICON, CORENLP }
+
+    private static final double LABEL_CUTOFF = 0.5; // half a class away from neutral
+    private static final String CORENLP_VERSION = "4.5.6";
+    private static final int CHUNK_PER_THREAD = 4; // documents per batch thread between permit hand-backs
+
     private StanfordCoreNLP pipeline;
+    private SentimentLexicon lexicon;
+    private Mode sentimentMode;
+    private String modelVersion;
+    private Semaphore permits;
+    private Semaphore batchPermits; // the share of permits batches may hold
+    private SentimentCache cache;
+    private Timer singleParseTimer;
+    private Timer batchParseTimer;
+    private Counter parsedDocuments;
+    private Counter rejections;
+    private Counter fastPathConfident;
+    private Counter fastPathEscalated;
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${sentiment.mode:corenlp}") private String mode;
+    @Value("${sentiment.lexicon.threshold:0.75}") private double lexiconThreshold;
+    @Value("${sentiment.lexicon.min-coverage:0.15}") private double lexiconMinCoverage;
+    @Value("${sentiment.lexicon.file:}") private String lexiconFile;
+    @Value("${sentiment.max-concurrent:0}") private int maxConcurrent;
+    @Value("${sentiment.acquire-timeout-ms:2000}") private long acquireTimeoutMs;
+    @Value("${sentiment.interactive-reserved:1}") private int interactiveReserved;
+    @Value("${sentiment.cache.max-size:100000}") private int cacheMaxSize;
+    @Value("${sentiment.cache.ttl-minutes:1440}") private long cacheTtlMinutes;
+    @Value("${sentiment.cache.file:}") private String cacheFile;
 
     @PostConstruct
-    public void init() {
-        System.out.println("Initializing Stanford CoreNLP (this may take a moment on first data load)...");
-        Properties props = new Properties();
-        props.setProperty("annotators", "tokenize, ssplit, parse, sentiment");
-        this.pipeline = new StanfordCoreNLP(props);
-        System.out.println("Stanford CoreNLP initialized successfully.");
+    public void init() throws IOException {
+        this.sentimentMode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        byte[] lexiconBytes;
+        try (InputStream in = lexiconFile.isBlank() ? new ClassPathResource("sentiment-lexicon.tsv").getInputStream()
+                                                     : Files.newInputStream(Path.of(lexiconFile))) {
+            lexiconBytes = in.readAllBytes();
+        }
+        this.lexicon = SentimentLexicon.load(new ByteArrayInputStream(lexiconBytes));
+        this.modelVersion = modelVersion(lexiconBytes);
+        System.out.println("Sentiment mode " + mode + " (lexicon of " + lexicon.size() + " tokens, threshold " + lexiconThreshold + ", model " + modelVersion + ")");
+        if (sentimentMode != Mode.LEXICON) {
+            System.out.println("Initializing Stanford CoreNLP (this may take a moment on first data load)...");
+            Properties props = new Properties();
+            props.setProperty("annotators", "tokenize, ssplit, parse, sentiment");
+            this.pipeline = new StanfordCoreNLP(props);
+        }
+        if (maxConcurrent <= 0) maxConcurrent = Runtime.getRuntime().availableProcessors();
+        this.permits = new Semaphore(maxConcurrent, true);
+        // Batches always keep at least one slot: with a single slot nothing can be reserved
+        int reserved = Math.min(Math.max(interactiveReserved, 0), maxConcurrent - 1);
+        if (reserved != interactiveReserved && maxConcurrent > 1) {
+            System.out.println("sentiment.interactive-reserved=" + interactiveReserved + " does not fit " + maxConcurrent
+                + " concurrent parses; reserving " + reserved);
+            interactiveReserved = reserved;
+        }
+        this.batchPermits = new Semaphore(maxConcurrent - interactiveReserved, true);
+        this.cache = new SentimentCache(cacheMaxSize, cacheTtlMinutes * 60_000, modelVersion);
+        this.singleParseTimer = Timer.builder("sentiment.parse").description("CoreNLP annotation time")
+            .tag("mode", "single").register(meterRegistry);
+        this.batchParseTimer = Timer.builder("sentiment.parse").description("CoreNLP annotation time")
+            .tag("mode", "batch").register(meterRegistry);
+        this.parsedDocuments = Counter.builder("sentiment.documents.parsed").register(meterRegistry);
+        this.rejections = Counter.builder("sentiment.rejections")
+            .description("Interactive requests rejected because the engine stayed saturated").register(meterRegistry);
+        this.fastPathConfident = Counter.builder("sentiment.fast-path").tag("outcome", "confident").register(meterRegistry);
+        this.fastPathEscalated = Counter.builder("sentiment.fast-path").tag("outcome", "escalated").register(meterRegistry);
+        if (!cacheFile.isBlank()) {
+            try {
+                System.out.println("Warm-started sentiment cache with " + cache.load(Path.of(cacheFile)) + " entries.");
+            } catch (IOException e) {
+                System.out.println("Could not read sentiment cache file " + cacheFile + ": " + e.getMessage());
+            }
+        }
+        if (pipeline != null) System.out.println("Stanford CoreNLP initialized successfully (" + maxConcurrent + " concurrent parses, "
+            + interactiveReserved + " reserved for interactive requests).");
+    }
+
+    @PreDestroy
+    public void persistCache() {
+        if (cacheFile.isBlank()) return;
+        try {
+            System.out.println("Saved " + cache.save(Path.of(cacheFile)) + " sentiment cache entries to " + cacheFile);
+        } catch (IOException e) {
+            System.out.println("Could not write sentiment cache file " + cacheFile + ": " + e.getMessage());
+        }
     }
 
     public String analyzeSentiment(String text) {
-        if (text == null || text.trim().isEmpty() || pipeline == null) return "Neutral";
-        int mainSentiment = 0;
-        Annotation annotation = pipeline.process(text);
+        if (text == null || text.trim().isEmpty()) return "Neutral";
+        String fast = fastPath(text);
+        if (fast != null) return fast;
+        TextHash key = SentimentCache.keyOf(text);
+        String cached = cache.get(key);
+        if (cached != null) return cached;
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejections.increment();
+                throw new SentimentEngineSaturatedException("Sentiment engine is saturated, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SentimentEngineSaturatedException("Interrupted while waiting for the sentiment engine");
+        }
+        try {
+            String label = toLabel(singleParseTimer.record(() -> pipeline.process(text)));
+            parsedDocuments.increment();
+            cache.put(key, label);
+            return label;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Scores many documents in multi-threaded annotation passes, a chunk at a time. Blocks until a
+     * worker is free, so bulk callers (ingest, backfills) are throttled instead of rejected.
+     */
+    public List<String> analyzeBatch(List<String> texts) {
+        List<String> labels = new ArrayList<>(texts.size());
+        // Only cache misses are parsed, and texts repeated within the batch are parsed once
+        Map<TextHash, Integer> firstIndex = new HashMap<>();
+        List<TextHash> keys = new ArrayList<>(texts.size());
+        List<Annotation> annotations = new ArrayList<>();
+        List<TextHash> annotatedKeys = new ArrayList<>();
+        for (String text : texts) {
+            String label = text == null || text.trim().isEmpty() ? "Neutral" : fastPath(text);
+            TextHash key = label == null ? SentimentCache.keyOf(text) : null;
+            if (label == null) label = cache.get(key);
+            keys.add(key);
+            labels.add(label);
+            if (label == null && firstIndex.putIfAbsent(key, annotations.size()) == null) {
+                annotations.add(new Annotation(text));
+                annotatedKeys.add(key);
+            }
+        }
+        if (annotations.isEmpty()) return labels;
+
+        for (int from = 0; from < annotations.size(); ) {
+            int threads = acquireBatchPermits(annotations.size() - from);
+            List<Annotation> chunk = annotations.subList(from, Math.min(from + threads * CHUNK_PER_THREAD, annotations.size()));
+            try {
+                batchParseTimer.record(() -> pipeline.annotate(chunk, threads));
+            } finally {
+                permits.release(threads);
+                batchPermits.release(threads);
+            }
+            from += chunk.size();
+        }
+        parsedDocuments.increment(annotations.size());
+        List<String> parsed = new ArrayList<>(annotations.size());
+        for (int i = 0; i < annotations.size(); i++) {
+            String label = toLabel(annotations.get(i));
+            parsed.add(label);
+            cache.put(annotatedKeys.get(i), label);
+        }
+        for (int i = 0; i < labels.size(); i++) {
+            if (labels.get(i) == null) labels.set(i, parsed.get(firstIndex.get(keys.get(i))));
+        }
+        return labels;
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public LruCache<TextHash, String> getCache() {
+        return cache.getCache();
+    }
+
+    /**
+     * Identifies what produces the labels (mode, threshold, lexicon and CoreNLP release); cached and
+     * stored labels from another version may differ from what this instance would produce.
+     */
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    /** Callers currently waiting for a parse slot. */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /** Parses currently running. */
+    public int getActiveParses() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    // Waits for one batch slot, then takes whatever else is free right now (up to one per document),
+    // so concurrent batches (e.g. the loader's scoring slices) share the slots instead of queueing
+    private int acquireBatchPermits(int documents) {
+        batchPermits.acquireUninterruptibly();
+        int granted = 1;
+        while (granted < documents && batchPermits.tryAcquire()) granted++;
+        permits.acquireUninterruptibly(granted);
+        return granted;
+    }
+
+    /** The lexicon's label when it is confident (always, in lexicon mode), otherwise null. */
+    private String fastPath(String text) {
+        if (sentimentMode == Mode.CORENLP) return null;
+        SentimentLexicon.Score score = lexicon.score(text);
+        if (sentimentMode == Mode.LEXICON) return labelOf(score.value());
+        if (Math.abs(score.value()) < lexiconThreshold || score.coverage() < lexiconMinCoverage) {
+            fastPathEscalated.increment();
+            return null;
+        }
+        fastPathConfident.increment();
+        return labelOf(score.value());
+    }
+
+    private String modelVersion(byte[] lexiconBytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(lexiconBytes);
+        // e.g. "lexicon:fea604f1", "lexicon:fea604f1@0.75/0.15+corenlp:4.5.6", "corenlp:4.5.6"
+        String lexiconPart = "lexicon:" + Long.toHexString(crc.getValue());
+        String corenlpPart = "corenlp:" + CORENLP_VERSION;
+        return switch (sentimentMode) {
+            case LEXICON -> lexiconPart;
+            case HYBRID -> lexiconPart + "@" + lexiconThreshold + "/" + lexiconMinCoverage + "+" + corenlpPart;
+            case CORENLP -> corenlpPart;
+        };
+    }
+
+    // Length-weighted mean of the sentence classes (0..4, centred on 2), so a short closing
+    // sentence no longer decides the verdict for the whole review
+    private static String toLabel(Annotation annotation) {
+        double weighted = 0;
+        int tokens = 0;
         for (CoreMap sentence : annotation.get(CoreAnnotations.SentencesAnnotation.class)) {
             Tree tree = sentence.get(SentimentCoreAnnotations.SentimentAnnotatedTree.class);
-            int sentiment = RNNCoreAnnotations.getPredictedClass(tree);
-            mainSentiment = sentiment;
-        }
-        switch (mainSentiment) {
-            case 0: return "Negative";
-            case 1: return "Negative";
-            case 2: return "Neutral";
-            case 3: return "Positive";
-            case 4: return "Positive";
-            default: return "Neutral";
+            int length = sentence.get(CoreAnnotations.TokensAnnotation.class).size();
+            weighted += (RNNCoreAnnotations.getPredictedClass(tree) - 2) * (double) length;
+            tokens += length;
         }
+        return labelOf(tokens == 0 ? 0 : weighted / tokens);
+    }
+
+    static String labelOf(double score) {
+        return score >= LABEL_CUTOFF ? "Positive" : score <= -LABEL_CUTOFF ? "Negative" : "Neutral";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.example.movie.review.analyser.service;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Thrown when every sentiment worker stayed busy for the whole acquire timeout; surfaces as 503. */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SentimentEngineSaturatedException extends RuntimeException {
+    public SentimentEngineSaturatedException(String message) {
+        super(message);
+    }
+}
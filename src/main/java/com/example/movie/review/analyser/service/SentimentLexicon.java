@@ -0,0 +1,105 @@
+package com.example.movie.review.analyser.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Token weights on CoreNLP's class scale (-2 very negative .. +2 very positive) used as a
+ * microsecond fast path in front of the parser. A text scores as the length-weighted mean of its
+ * sentence scores, where a sentence scores as the mean weight of its known tokens; a token within
+ * three tokens after a negator ("not", "never", "didn't") counts inverted and damped.
+ * Sentences without known tokens count as neutral. The share of tokens the lexicon knows is
+ * reported as the coverage, so the caller can escalate text it barely recognises to CoreNLP
+ * instead of trusting the one known word in a long sentence.
+ */
+public class SentimentLexicon {
+
+    static final Set<String> NEGATORS = Set.of("not", "no", "never", "nothing", "nor", "neither", "cannot", "without", "hardly");
+    static final int NEGATION_SCOPE = 3;
+    static final float NEGATION_FACTOR = -0.75f;
+
+    private final Map<String, Float> weights;
+
+    public SentimentLexicon(Map<String, Float> weights) {
+        this.weights = weights;
+    }
+
+    /** Reads {@code token<TAB>weight} lines; blank lines and lines starting with # are ignored. */
+    public static SentimentLexicon load(InputStream in) throws IOException {
+        Map<String, Float> weights = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                int tab = line.indexOf('\t');
+                if (tab < 0) throw new IOException("Malformed lexicon line: " + line);
+                weights.put(line.substring(0, tab).trim().toLowerCase(Locale.ROOT), Float.parseFloat(line.substring(tab + 1).trim()));
+            }
+        }
+        return new SentimentLexicon(weights);
+    }
+
+    public int size() {
+        return weights.size();
+    }
+
+    /** @param value length-weighted score in [-2, 2]; @param coverage share of tokens with a weight, in [0, 1] */
+    public record Score(double value, double coverage) {}
+
+    public Score score(String text) {
+        double weightedSum = 0;
+        int totalTokens = 0, totalMatched = 0;
+        for (List<String> sentence : sentences(text)) {
+            double sum = 0;
+            int matched = 0, negatedFor = 0;
+            for (String token : sentence) {
+                Float weight = weights.get(token);
+                if (weight != null) {
+                    sum += negatedFor > 0 ? weight * NEGATION_FACTOR : weight;
+                    matched++;
+                }
+                negatedFor = isNegator(token) ? NEGATION_SCOPE : Math.max(0, negatedFor - 1);
+            }
+            if (matched > 0) weightedSum += sum / matched * sentence.size();
+            totalTokens += sentence.size();
+            totalMatched += matched;
+        }
+        return totalTokens == 0 ? new Score(0, 0) : new Score(weightedSum / totalTokens, (double) totalMatched / totalTokens);
+    }
+
+    static boolean isNegator(String token) {
+        return token.endsWith("n't") || NEGATORS.contains(token);
+    }
+
+    /** Lower-cased word tokens (letters, inner apostrophes and hyphens) grouped by sentence. */
+    static List<List<String>> sentences(String text) {
+        List<List<String>> sentences = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : '.';
+            if (Character.isLetter(c) || (token.length() > 0 && (c == '\'' || c == '’' || c == '-') && i + 1 < n && Character.isLetter(text.charAt(i + 1)))) {
+                token.append(c == '’' ? '\'' : Character.toLowerCase(c));
+                continue;
+            }
+            if (token.length() > 0) {
+                current.add(token.toString());
+                token.setLength(0);
+            }
+            if ((c == '.' || c == '!' || c == '?') && !current.isEmpty()) {
+                sentences.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        return sentences;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.movie.review.analyser.service;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.neural.rnn.RNNCoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import edu.stanford.nlp.sentiment.SentimentCoreAnnotations;
+import edu.stanford.nlp.util.CoreMap;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Offline trainer for {@link SentimentLexicon}: labels every sentence of a review corpus with
+ * CoreNLP and gives each token the smoothed mean of the labels (-2..+2) of the sentences it occurs
+ * in, skipping occurrences in a negation scope. Tokens seen fewer than {@code minCount} times or
+ * with a weight too close to neutral are dropped.
+ * <p>
+ * Usage: {@code java -cp <classpath> ...SentimentLexiconTrainer reviews.txt sentiment-lexicon.tsv [minCount]}
+ * where reviews.txt holds one review per line. Point {@code sentiment.lexicon.file} at the output.
+ */
+public class SentimentLexiconTrainer {
+
+    private static final double SMOOTHING = 5; // pseudo-occurrences at 0 pulling rare tokens towards neutral
+    private static final double MIN_WEIGHT = 0.25;
+    private static final int BATCH_SIZE = 256;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: SentimentLexiconTrainer <reviews.txt> <lexicon.tsv> [minCount]");
+            return;
+        }
+        int minCount = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Properties props = new Properties();
+        props.setProperty("annotators", "tokenize, ssplit, parse, sentiment");
+        StanfordCoreNLP pipeline = new StanfordCoreNLP(props);
+
+        Map<String, double[]> stats = new HashMap<>(); // token -> {sum of labels, occurrences}
+        List<String> lines = Files.readAllLines(Path.of(args[0]), StandardCharsets.UTF_8);
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int from = 0; from < lines.size(); from += BATCH_SIZE) {
+            List<Annotation> annotations = new ArrayList<>();
+            for (String line : lines.subList(from, Math.min(from + BATCH_SIZE, lines.size()))) {
+                if (!line.isBlank()) annotations.add(new Annotation(line));
+            }
+            pipeline.annotate(annotations, threads);
+            for (Annotation annotation : annotations) {
+                for (CoreMap sentence : annotation.get(CoreAnnotations.SentencesAnnotation.class)) {
+                    int label = RNNCoreAnnotations.getPredictedClass(sentence.get(SentimentCoreAnnotations.SentimentAnnotatedTree.class)) - 2;
+                    count(sentence.get(CoreAnnotations.TextAnnotation.class), label, stats);
+                }
+            }
+            System.out.println("Labelled " + Math.min(from + BATCH_SIZE, lines.size()) + " / " + lines.size() + " reviews");
+        }
+
+        List<Map.Entry<String, Double>> weights = new ArrayList<>();
+        stats.forEach((token, s) -> {
+            double weight = s[0] / (s[1] + SMOOTHING);
+            if (s[1] >= minCount && Math.abs(weight) >= MIN_WEIGHT) weights.add(Map.entry(token, weight));
+        });
+        weights.sort((a, b) -> Double.compare(Math.abs(b.getValue()), Math.abs(a.getValue())));
+        try (BufferedWriter out = Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            out.write("# Trained by SentimentLexiconTrainer from " + lines.size() + " reviews (minCount " + minCount + ")\n");
+            for (Map.Entry<String, Double> entry : weights) {
+                out.write(entry.getKey() + "\t" + String.format(Locale.ROOT, "%.3f", entry.getValue()) + "\n");
+            }
+        }
+        System.out.println("Wrote " + weights.size() + " tokens to " + args[1]);
+    }
+
+    // Each token counts once per sentence; tokens a negator flips are left out
+    private static void count(String sentence, int label, Map<String, double[]> stats) {
+        Set<String> seen = new HashSet<>();
+        for (List<String> tokens : SentimentLexicon.sentences(sentence)) {
+            int negatedFor = 0;
+            for (String token : tokens) {
+                if (negatedFor == 0 && seen.add(token)) {
+                    double[] s = stats.computeIfAbsent(token, k -> new double[2]);
+                    s[0] += label;
+                    s[1]++;
+                }
+                negatedFor = SentimentLexicon.isNegator(token) ? SentimentLexicon.NEGATION_SCOPE : Math.max(0, negatedFor - 1);
+            }
+        }
+    }
+}
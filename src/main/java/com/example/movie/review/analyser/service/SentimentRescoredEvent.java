@@ -0,0 +1,5 @@
+package com.example.movie.review.analyser.service;
+
+/** Published when {@link ReviewRescoringJob} finishes a table for {@code modelVersion}. */
+public record SentimentRescoredEvent(String table, String modelVersion, long changed) {
+}
@@ -0,0 +1,214 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.MovieSummary;
+import com.example.movie.review.analyser.dto.SimilarGraphStats;
+import com.example.movie.review.analyser.loader.WarehouseLoadedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The MOVIE_SIMILAR links as a compressed sparse row graph over movie ordinals: the neighbours of
+ * ordinal {@code i} are {@code targets[offsets[i] .. offsets[i + 1])}, most similar first. Movie
+ * summaries are held column-wise next to it, indexed by the same ordinal (movies sorted by film id),
+ * so similar-movie queries are array walks with no per-query database or entity work.
+ */
+@Component
+public class SimilarMovieGraph {
+
+    public static final int MAX_HOPS = 3;
+    public static final int MAX_LIMIT = 50;
+
+    private static final String MOVIE_SQL = "SELECT filmid, title, poster_path, release_date, vote_average, vote_count FROM movie ORDER BY filmid";
+    private static final String LINK_SQL = "SELECT filmid, similar_filmid FROM similar_movie ORDER BY filmid, similarity_rank";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private volatile Graph graph = Graph.EMPTY;
+    private volatile long buildMillis;
+
+    // Built as soon as a load or snapshot import completes; at ready only if no load happened
+    // (data already present, or another node loaded it).
+    @EventListener(WarehouseLoadedEvent.class)
+    public void onWarehouseLoaded() {
+        rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!isReady()) rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Columns movies = new Columns();
+        jdbcTemplate.query(MOVIE_SQL, rs -> {
+            movies.add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getDouble(5), rs.getInt(6));
+        });
+        int n = movies.size;
+        int[] filmIds = Arrays.copyOf(movies.filmIds, n);
+
+        // Links arrive grouped by source film and in rank order, so they can be appended directly
+        int[] offsets = new int[n + 1];
+        int[][] targets = {new int[1024]};
+        int[] counts = new int[2]; // links kept, links dropped
+        int[] last = {-1};
+        jdbcTemplate.query(LINK_SQL, rs -> {
+            int from = Arrays.binarySearch(filmIds, rs.getInt(1));
+            int to = Arrays.binarySearch(filmIds, rs.getInt(2));
+            if (from < 0 || to < 0 || from == to) {
+                counts[1]++;
+                return;
+            }
+            for (int i = last[0] + 1; i <= from; i++) offsets[i] = counts[0];
+            last[0] = from;
+            if (counts[0] == targets[0].length) targets[0] = Arrays.copyOf(targets[0], counts[0] * 2);
+            targets[0][counts[0]++] = to;
+        });
+        for (int i = last[0] + 1; i <= n; i++) offsets[i] = counts[0];
+
+        graph = new Graph(filmIds, Arrays.copyOf(movies.titles, n), Arrays.copyOf(movies.posterPaths, n),
+            Arrays.copyOf(movies.releaseDates, n), Arrays.copyOf(movies.voteAverages, n), Arrays.copyOf(movies.voteCounts, n),
+            offsets, Arrays.copyOf(targets[0], counts[0]), counts[1], true);
+        buildMillis = (System.nanoTime() - start) / 1_000_000;
+        SimilarGraphStats stats = getStats();
+        System.out.println("Similar-movie graph built: " + stats.getMovies() + " movies, " + stats.getLinks() + " links ("
+            + stats.getDroppedLinks() + " dropped), ~" + (stats.getEstimatedBytes() >> 20) + " MB in " + buildMillis + " ms");
+    }
+
+    public boolean isReady() {
+        return graph.ready;
+    }
+
+    /**
+     * Movies similar to {@code filmid}, breadth first: all direct links in rank order, then the
+     * links of those, up to {@code hops} levels. Returns {@code null} while the graph is not built.
+     */
+    public List<MovieSummary> findSimilar(int filmid, int hops, int limit) {
+        Graph current = graph;
+        if (!current.ready) return null;
+        int start = Arrays.binarySearch(current.filmIds, filmid);
+        if (start < 0) return List.of();
+        int[] found = current.expand(start, Math.min(Math.max(hops, 1), MAX_HOPS), Math.min(Math.max(limit, 1), MAX_LIMIT));
+        List<MovieSummary> summaries = new ArrayList<>(found.length);
+        for (int ordinal : found) summaries.add(current.summary(ordinal));
+        return summaries;
+    }
+
+    public SimilarGraphStats getStats() {
+        Graph current = graph;
+        return new SimilarGraphStats(current.ready, current.filmIds.length, current.targets.length,
+            current.droppedLinks, buildMillis, current.estimatedBytes());
+    }
+
+    private static final class Graph {
+        static final Graph EMPTY = new Graph(new int[0], new String[0], new String[0], new String[0], new double[0], new int[0],
+            new int[1], new int[0], 0, false);
+
+        final int[] filmIds; // sorted; the index is the movie ordinal
+        final String[] titles;
+        final String[] posterPaths;
+        final String[] releaseDates;
+        final double[] voteAverages;
+        final int[] voteCounts;
+        final int[] offsets;
+        final int[] targets;
+        final int droppedLinks;
+        final boolean ready;
+
+        Graph(int[] filmIds, String[] titles, String[] posterPaths, String[] releaseDates, double[] voteAverages,
+              int[] voteCounts, int[] offsets, int[] targets, int droppedLinks, boolean ready) {
+            this.filmIds = filmIds;
+            this.titles = titles;
+            this.posterPaths = posterPaths;
+            this.releaseDates = releaseDates;
+            this.voteAverages = voteAverages;
+            this.voteCounts = voteCounts;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.droppedLinks = droppedLinks;
+            this.ready = ready;
+        }
+
+        // The result array doubles as the BFS queue; it holds at most MAX_LIMIT entries, so the
+        // linear duplicate check is cheaper than any set.
+        int[] expand(int start, int hops, int limit) {
+            int[] found = new int[limit];
+            int size = 0, levelStart = 0;
+            size = appendNeighbours(start, start, found, size);
+            for (int hop = 2; hop <= hops && size < limit; hop++) {
+                int levelEnd = size;
+                for (int i = levelStart; i < levelEnd && size < limit; i++) {
+                    size = appendNeighbours(found[i], start, found, size);
+                }
+                levelStart = levelEnd;
+            }
+            return size == limit ? found : Arrays.copyOf(found, size);
+        }
+
+        private int appendNeighbours(int node, int start, int[] found, int size) {
+            for (int e = offsets[node]; e < offsets[node + 1] && size < found.length; e++) {
+                int target = targets[e];
+                if (target != start && !contains(found, size, target)) found[size++] = target;
+            }
+            return size;
+        }
+
+        private static boolean contains(int[] values, int size, int value) {
+            for (int i = 0; i < size; i++) if (values[i] == value) return true;
+            return false;
+        }
+
+        MovieSummary summary(int ordinal) {
+            return new MovieSummary(filmIds[ordinal], titles[ordinal], posterPaths[ordinal], releaseDates[ordinal],
+                voteAverages[ordinal], voteCounts[ordinal]);
+        }
+
+        // Rough retained size: primitive columns, CSR arrays and the string columns.
+        long estimatedBytes() {
+            long bytes = 16 + 4L * filmIds.length + 16 + 8L * voteAverages.length + 16 + 4L * voteCounts.length
+                + 16 + 4L * offsets.length + 16 + 4L * targets.length;
+            for (String[] column : List.of(titles, posterPaths, releaseDates)) {
+                bytes += 16 + 4L * column.length;
+                for (String value : column) if (value != null) bytes += 40 + value.length();
+            }
+            return bytes;
+        }
+    }
+
+    // Growable column buffers used while reading the movie table
+    private static final class Columns {
+        int[] filmIds = new int[1024];
+        String[] titles = new String[1024];
+        String[] posterPaths = new String[1024];
+        String[] releaseDates = new String[1024];
+        double[] voteAverages = new double[1024];
+        int[] voteCounts = new int[1024];
+        int size;
+
+        void add(int filmid, String title, String posterPath, String releaseDate, double voteAverage, int voteCount) {
+            if (size == filmIds.length) {
+                int capacity = size * 2;
+                filmIds = Arrays.copyOf(filmIds, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                posterPaths = Arrays.copyOf(posterPaths, capacity);
+                releaseDates = Arrays.copyOf(releaseDates, capacity);
+                voteAverages = Arrays.copyOf(voteAverages, capacity);
+                voteCounts = Arrays.copyOf(voteCounts, capacity);
+            }
+            filmIds[size] = filmid;
+            titles[size] = title;
+            posterPaths[size] = posterPath;
+            releaseDates[size] = releaseDate;
+            voteAverages[size] = voteAverage;
+            voteCounts[size] = voteCount;
+            size++;
+        }
+    }
+}
@@ -36,15 +36,26 @@ document.addEventListener('DOMContentLoaded', () => {
 
         // Render main details immediately from the search result object
         renderMovieDetails(movie);
-        
-        // Asynchronously fetch and render all supplementary data
-        fetchAndRenderCast(movie.filmid);
-        fetchAndRenderExternalReviews(movie.filmid);
-        fetchAndRenderSimilarMovies(movie.filmid);
-        fetchMyReviewStats(movie.title);
+        allElements.castList.innerHTML = '';
+        allElements.externalReviewsList.innerHTML = '';
+        allElements.similarMoviesList.innerHTML = '';
         
         // Show the main details view
         allElements.detailsView.classList.add('visible');
+
+        // One bundle request replaces the separate cast/reviews/similar/stats calls
+        try {
+            const response = await fetch(`${API_BASE_URL}/movies/${movie.filmid}/bundle`);
+            if (!response.ok) throw new Error(`Bundle request failed with status ${response.status}`);
+            const bundle = await response.json();
+            if (selectedMovie !== movie) return; // another movie was selected meanwhile
+            renderMovieDetails(bundle.movie);
+            renderCast(bundle.cast);
+            renderExternalReviews(bundle.externalReviews);
+            renderSimilarMovies(bundle.similarMovies);
+            renderMyReviewSummary(bundle.reviewStats);
+            fetchMyReviews(movie.title);
+        } catch (error) { console.error('Error fetching movie bundle:', error); }
     };
 
     const renderMovieDetails = (details) => {
@@ -55,79 +66,68 @@ document.addEventListener('DOMContentLoaded', () => {
         allElements.movieMeta.innerHTML = `<span>${releaseYear}</span> &bull; <span>Vote Average: ${details.voteAverage.toFixed(1)}/10</span>`;
     };
 
-    const fetchAndRenderCast = async (movieId) => {
+    const renderCast = (cast) => {
         allElements.castList.innerHTML = '';
-        try {
-            const response = await fetch(`${API_BASE_URL}/movies/${movieId}/cast`);
-            const cast = await response.json();
-            if (cast && cast.length > 0) {
-                cast.forEach(member => {
-                    const profileImage = member.profilePath ? `${IMAGE_BASE_URL}w185${member.profilePath}` : 'avatar.png';
-                    allElements.castList.innerHTML += `
-                        <div class="cast-member">
-                            <img src="${profileImage}" alt="${member.name}">
-                            <div class="name">${member.name}</div>
-                            <div class="character">${member.character}</div>
-                        </div>`;
-                });
-            } else {
-                 allElements.castList.innerHTML = '<p>No cast information available in local data.</p>';
-            }
-        } catch (error) { console.error('Error fetching cast:', error); }
+        if (cast && cast.length > 0) {
+            cast.forEach(member => {
+                const profileImage = member.profilePath ? `${IMAGE_BASE_URL}w185${member.profilePath}` : 'avatar.png';
+                allElements.castList.innerHTML += `
+                    <div class="cast-member">
+                        <img src="${profileImage}" alt="${member.name}">
+                        <div class="name">${member.name}</div>
+                        <div class="character">${member.character}</div>
+                    </div>`;
+            });
+        } else {
+             allElements.castList.innerHTML = '<p>No cast information available in local data.</p>';
+        }
     };
 
-    const fetchAndRenderExternalReviews = async (movieId) => {
+    const renderExternalReviews = (reviews) => {
         allElements.externalReviewsList.innerHTML = '';
-        try {
-            const response = await fetch(`${API_BASE_URL}/movies/${movieId}/external-reviews`);
-            const reviews = await response.json();
-            if (reviews && reviews.length > 0) {
-                reviews.forEach(review => {
-                    allElements.externalReviewsList.innerHTML += `
-                        <div class="review-item">
-                            <h3>By: ${review.author} (Sentiment: ${review.sentiment})</h3>
-                            <p>${review.content}</p>
-                        </div>`;
-                });
-            } else {
-                allElements.externalReviewsList.innerHTML = '<p>No external reviews found in our local database.</p>';
-            }
-        } catch (error) { console.error('Error fetching external reviews:', error); }
+        if (reviews && reviews.length > 0) {
+            reviews.forEach(review => {
+                allElements.externalReviewsList.innerHTML += `
+                    <div class="review-item">
+                        <h3>By: ${review.author} (Sentiment: ${review.sentiment})</h3>
+                        <p>${review.content}</p>
+                    </div>`;
+            });
+        } else {
+            allElements.externalReviewsList.innerHTML = '<p>No external reviews found in our local database.</p>';
+        }
     };
 
-    const fetchAndRenderSimilarMovies = async (movieId) => {
+    const renderSimilarMovies = (similarMovies) => {
         allElements.similarMoviesList.innerHTML = '';
-        try {
-            const response = await fetch(`${API_BASE_URL}/movies/${movieId}/similar`);
-            const similarMovies = await response.json();
-            if (similarMovies && similarMovies.length > 0) {
-                similarMovies.forEach(movie => {
-                    const poster = movie.posterPath ? `${IMAGE_BASE_URL}w185${movie.posterPath}` : 'placeholder.png';
-                    const similarMovieEl = document.createElement('div');
-                    similarMovieEl.className = 'similar-movie';
-                    similarMovieEl.innerHTML = `<img src="${poster}" alt="${movie.title}"><div class="title">${movie.title}</div>`;
-                    similarMovieEl.addEventListener('click', () => selectMovie(movie)); // Allows clicking on similar movies
-                    allElements.similarMoviesList.appendChild(similarMovieEl);
-                });
-            } else {
-                 allElements.similarMoviesList.innerHTML = '<p>No similar movies found in local data.</p>';
-            }
-        } catch (error) { console.error('Error fetching similar movies:', error); }
+        if (similarMovies && similarMovies.length > 0) {
+            similarMovies.forEach(movie => {
+                const poster = movie.posterPath ? `${IMAGE_BASE_URL}w185${movie.posterPath}` : 'placeholder.png';
+                const similarMovieEl = document.createElement('div');
+                similarMovieEl.className = 'similar-movie';
+                similarMovieEl.innerHTML = `<img src="${poster}" alt="${movie.title}"><div class="title">${movie.title}</div>`;
+                similarMovieEl.addEventListener('click', () => selectMovie(movie)); // Allows clicking on similar movies
+                allElements.similarMoviesList.appendChild(similarMovieEl);
+            });
+        } else {
+             allElements.similarMoviesList.innerHTML = '<p>No similar movies found in local data.</p>';
+        }
     };
 
-    const fetchMyReviewStats = async (title) => {
-        try {
-            const response = await fetch(`${API_BASE_URL}/reviews/stats?title=${encodeURIComponent(title)}`);
-            const stats = await response.json();
-            
-            allElements.myReviewSummary.innerHTML = `
-                <div class="summary-item"><div class="value">${stats.averageRating.toFixed(1)}</div><div class="label">Avg Rating</div></div>
-                <div class="summary-item"><div class="value">${stats.totalReviews}</div><div class="label">Total Reviews</div></div>
-                <div class="summary-item"><div class="value">${stats.dominantSentiment}</div><div class="label">Overall Sentiment</div></div>`;
+    const renderMyReviewSummary = (stats) => {
+        allElements.myReviewSummary.innerHTML = `
+            <div class="summary-item"><div class="value">${stats.averageRating.toFixed(1)}</div><div class="label">Avg Rating</div></div>
+            <div class="summary-item"><div class="value">${stats.totalReviews}</div><div class="label">Total Reviews</div></div>
+            <div class="summary-item"><div class="value">${stats.dominantSentiment}</div><div class="label">Overall Sentiment</div></div>`;
+    };
 
+    const fetchMyReviews = async (title) => {
+        try {
+            const response = await fetch(`${API_BASE_URL}/reviews?title=${encodeURIComponent(title)}&page=0&size=20`);
+            const reviews = await response.json();
             allElements.myReviewsList.innerHTML = '';
-            if (stats.reviews && stats.reviews.length > 0) {
-                stats.reviews.forEach(review => {
+            if (reviews && reviews.length > 0) {
+                reviews.forEach(review => {
                     allElements.myReviewsList.innerHTML += `
                         <div class="review-item">
                             ${generateStarDisplay(review.rating)}
@@ -138,9 +138,27 @@ document.addEventListener('DOMContentLoaded', () => {
             } else {
                 allElements.myReviewsList.innerHTML = '<p>You have not reviewed this movie yet.</p>';
             }
+        } catch (error) { console.error("Failed to fetch my reviews", error); }
+    };
+
+    const fetchMyReviewStats = async (title) => {
+        try {
+            const response = await fetch(`${API_BASE_URL}/reviews/stats?title=${encodeURIComponent(title)}`);
+            renderMyReviewSummary(await response.json());
+            fetchMyReviews(title);
         } catch (error) { console.error("Failed to fetch my review stats", error); }
     };
 
+    // Reviews are scored in the background; poll until the sentiment is no longer pending
+    const pollReviewSentiment = async (review, attempts = 60) => {
+        while (review.sentiment === 'Pending' && attempts-- > 0) {
+            await new Promise(resolve => setTimeout(resolve, 500));
+            const response = await fetch(`${API_BASE_URL}/reviews/${review.id}`);
+            review = await response.json();
+        }
+        return review;
+    };
+
     // --- Star Rating Logic ---
     const generateStarDisplay = (rating) => {
         let starHTML = '';
@@ -199,16 +217,19 @@ document.addEventListener('DOMContentLoaded', () => {
             return;
         }
         try {
-            const response = await fetch(`${API_BASE_URL}/reviews`, {
+            const response = await fetch(`${API_BASE_URL}/reviews?async=true`, {
                 method: 'POST',
                 headers: { 'Content-Type': 'application/json' },
                 body: JSON.stringify({ movieTitle: selectedMovie.title, reviewText: allElements.reviewText.value, rating: currentRating }),
             });
             const newReview = await response.json();
-            allElements.latestResult.innerHTML = `Submitted! Your review's sentiment: <strong>${newReview.sentiment.toUpperCase()}</strong>`;
+            allElements.latestResult.innerHTML = 'Submitted! Analysing sentiment...';
             allElements.reviewText.value = '';
             resetStars();
             fetchMyReviewStats(selectedMovie.title);
+            const scored = await pollReviewSentiment(newReview);
+            allElements.latestResult.innerHTML = `Submitted! Your review's sentiment: <strong>${scored.sentiment.toUpperCase()}</strong>`;
+            fetchMyReviewStats(selectedMovie.title);
         } catch (error) { console.error('Error submitting review:', error); }
     });
     
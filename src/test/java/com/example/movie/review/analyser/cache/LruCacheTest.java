@@ -0,0 +1,114 @@
+package com.example.movie.review.analyser.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Eviction order, expiry and counters of the segmented LRU cache. */
+class LruCacheTest {
+
+    // Under 128 entries there is a single segment, so recency is global
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        LruCache<String, Integer> cache = new LruCache<>("test", 3, 0);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(1, cache.get("a")); // b is now the least recently used
+
+        cache.put("d", 4);
+
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(4, cache.get("d"));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void replacingAValueDoesNotEvict() {
+        LruCache<String, Integer> cache = new LruCache<>("test", 2, 0);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("a", 10); // also makes a the most recent
+        cache.put("c", 3);
+
+        assertEquals(10, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, cache.getPutCount());
+    }
+
+    @Test
+    void segmentedCacheStaysWithinItsSize() {
+        LruCache<Integer, Integer> cache = new LruCache<>("test", 1024, 0);
+        for (int i = 0; i < 5000; i++) cache.put(i, i);
+
+        assertTrue(cache.size() <= 1024, "size " + cache.size());
+        assertEquals(5000 - cache.size(), cache.getEvictionCount());
+        assertEquals(4999, cache.get(4999)); // the newest entry of its segment
+    }
+
+    @Test
+    void entriesExpireAfterTheirTimeToLive() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>("test", 10, 50);
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a"));
+
+        Thread.sleep(120);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size()); // removed on the failed read
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.put("a", 2); // a new write starts a new lifetime
+        assertEquals(2, cache.get("a"));
+    }
+
+    @Test
+    void readsDoNotExtendTheTimeToLive() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>("test", 10, 100);
+        cache.put("a", 1);
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(40);
+            cache.get("a");
+        }
+        Thread.sleep(40);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void loaderResultsAreCachedButNullsAreNot() {
+        LruCache<String, String> cache = new LruCache<>("test", 10, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("A", cache.get("a", key -> { loads.incrementAndGet(); return key.toUpperCase(); }));
+        assertEquals("A", cache.get("a", key -> { loads.incrementAndGet(); return "other"; }));
+        assertNull(cache.get("b", key -> { loads.incrementAndGet(); return null; }));
+        assertNull(cache.get("b", key -> { loads.incrementAndGet(); return null; }));
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void removeAndClear() {
+        LruCache<String, Integer> cache = new LruCache<>("test", 10, 0);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.remove("a");
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEvictionCount()); // removals are not evictions
+    }
+}
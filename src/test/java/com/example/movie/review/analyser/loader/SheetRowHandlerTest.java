@@ -0,0 +1,102 @@
+package com.example.movie.review.analyser.loader;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Row assembly from sheet XML: cell placement by reference, padding and batching. */
+class SheetRowHandlerTest {
+
+    private static final String[] SHARED = {"FILMID", "TITLE", "RATING", "Heat"};
+
+    private final List<String[]> headers = new ArrayList<>();
+    private final List<List<String[]>> batches = new ArrayList<>();
+
+    private List<String[]> parse(String rows) throws Exception {
+        String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+            + rows + "</sheetData></worksheet>";
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.newSAXParser().parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+            new SheetRowHandler(SHARED, headers::add, batches::add));
+        List<String[]> all = new ArrayList<>();
+        batches.forEach(all::addAll);
+        return all;
+    }
+
+    private static final String HEADER = "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c><c r=\"C1\" t=\"s\"><v>2</v></c></row>";
+
+    @Test
+    void resolvesSharedInlineAndPlainCells() throws Exception {
+        List<String[]> rows = parse(HEADER
+            + "<row r=\"2\"><c r=\"A2\"><v>7</v></c><c r=\"B2\" t=\"s\"><v>3</v></c><c r=\"C2\"><v>8.5</v></c></row>"
+            + "<row r=\"3\"><c r=\"A3\"><v>8</v></c><c r=\"B3\" t=\"inlineStr\"><is><r><t>Ran</t></r><r><t>som</t></r></is></c></row>");
+
+        assertArrayEquals(new String[] {"FILMID", "TITLE", "RATING"}, headers.get(0));
+        assertArrayEquals(new String[] {"7", "Heat", "8.5"}, rows.get(0));
+        assertArrayEquals(new String[] {"8", "Ransom", null}, rows.get(1)); // padded to the header width
+    }
+
+    @Test
+    void sparseRowsKeepTheirColumns() throws Exception {
+        List<String[]> rows = parse(HEADER
+            + "<row r=\"2\"><c r=\"A2\"><v>1</v></c><c r=\"C2\"><v>9</v></c></row>"
+            + "<row r=\"3\"><c r=\"C3\"><v>4</v></c></row>"
+            + "<row r=\"4\"></row>");
+
+        assertArrayEquals(new String[] {"1", null, "9"}, rows.get(0));
+        assertArrayEquals(new String[] {null, null, "4"}, rows.get(1));
+        assertArrayEquals(new String[] {null, null, null}, rows.get(2));
+    }
+
+    // Writers that omit r get the old positional behaviour; once a reference appears it wins
+    @Test
+    void referencesOverrideDocumentOrder() throws Exception {
+        List<String[]> rows = parse(HEADER
+            + "<row><c><v>1</v></c><c><v>2</v></c><c><v>3</v></c></row>"
+            + "<row><c r=\"B3\"><v>2</v></c><c><v>3</v></c></row>"
+            + "<row><c r=\"C4\"><v>3</v></c><c r=\"A4\"><v>1</v></c></row>");
+
+        assertArrayEquals(new String[] {"1", "2", "3"}, rows.get(0));
+        assertArrayEquals(new String[] {null, "2", "3"}, rows.get(1)); // positionally this was {"2", "3", null}
+        assertArrayEquals(new String[] {"1", null, "3"}, rows.get(2));
+    }
+
+    @Test
+    void cellsPastTheHeaderWidenTheRow() throws Exception {
+        List<String[]> rows = parse(HEADER + "<row r=\"2\"><c r=\"E2\"><v>x</v></c></row>");
+
+        assertArrayEquals(new String[] {null, null, null, null, "x"}, rows.get(0));
+    }
+
+    @Test
+    void handsOverFullBatchesAndTheRemainder() throws Exception {
+        StringBuilder xml = new StringBuilder(HEADER);
+        for (int r = 2; r <= SheetRowHandler.BATCH_SIZE + 6; r++) {
+            xml.append("<row r=\"").append(r).append("\"><c r=\"A").append(r).append("\"><v>").append(r).append("</v></c></row>");
+        }
+        List<String[]> rows = parse(xml.toString());
+
+        assertEquals(2, batches.size());
+        assertEquals(SheetRowHandler.BATCH_SIZE, batches.get(0).size());
+        assertEquals(5, batches.get(1).size());
+        assertEquals("2", rows.get(0)[0]);
+        assertEquals(String.valueOf(SheetRowHandler.BATCH_SIZE + 6), rows.get(rows.size() - 1)[0]);
+    }
+
+    @Test
+    void columnOfReadsTheLetters() {
+        assertEquals(0, SheetRowHandler.columnOf("A1", 5));
+        assertEquals(25, SheetRowHandler.columnOf("Z10", 5));
+        assertEquals(27, SheetRowHandler.columnOf("AB12", 5));
+        assertEquals(5, SheetRowHandler.columnOf(null, 5));
+        assertEquals(5, SheetRowHandler.columnOf("12", 5));
+    }
+}
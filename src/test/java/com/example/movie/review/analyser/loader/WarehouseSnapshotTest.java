@@ -0,0 +1,136 @@
+package com.example.movie.review.analyser.loader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Export/import round trip of the warehouse snapshot and the ways a file is rejected. */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:warehouse-snapshot;DB_CLOSE_DELAY=-1",
+    "sentiment.cache.file=",
+    "movie-cache.warm-up.top-movies=0"
+})
+@ActiveProfiles("test")
+class WarehouseSnapshotTest {
+
+    // Not on the classpath, so the source check trusts them
+    private static final List<String> SOURCES = List.of("data/MOVIE.xlsx", "data/PERSON.xlsx");
+    private static final String MODEL = "corenlp:test";
+
+    @Autowired private WarehouseSnapshot warehouseSnapshot;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @TempDir private Path dir;
+
+    @BeforeEach
+    void seed() {
+        clear();
+        jdbcTemplate.update("INSERT INTO movie (filmid, title, overview, vote_average, vote_count) VALUES (1, 'Heat', NULL, 8.3, 900), (2, 'Amélie', 'Paris.', 7.9, 500)");
+        jdbcTemplate.update("INSERT INTO person (personid, name, profile_path) VALUES (10, 'Al Pacino', '/p.jpg')");
+        jdbcTemplate.update("INSERT INTO crew_credit (filmid, credit_order, personid, character_name) VALUES (1, 0, 10, 'Vincent Hanna')");
+        jdbcTemplate.update("INSERT INTO external_review (filmid, author, content, sentiment) VALUES (1, 'critic', 'Tense.', 'Positive')");
+        jdbcTemplate.update("INSERT INTO similar_movie (filmid, similarity_rank, similar_filmid) VALUES (1, 0, 2)");
+    }
+
+    private void clear() {
+        for (WarehouseSnapshot.Table table : WarehouseSnapshot.TABLES.reversed()) jdbcTemplate.update("DELETE FROM " + table.name());
+    }
+
+    private List<Map<String, Object>> contents() {
+        return WarehouseSnapshot.TABLES.stream()
+            .flatMap(table -> jdbcTemplate.queryForList(table.selectSql()).stream())
+            .toList();
+    }
+
+    private int rowCount() {
+        int rows = 0;
+        for (WarehouseSnapshot.Table table : WarehouseSnapshot.TABLES) {
+            rows += jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table.name(), Integer.class);
+        }
+        return rows;
+    }
+
+    private static void overwrite(Path file, long position, int value) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+
+    private static int readInt(Path file, long position) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.read(buffer, position);
+            return buffer.getInt(0);
+        }
+    }
+
+    @Test
+    void roundTripRestoresEveryTable() throws Exception {
+        List<Map<String, Object>> before = contents();
+        Path file = dir.resolve("warehouse.snap");
+
+        assertEquals(6, warehouseSnapshot.export(file, SOURCES, MODEL));
+        assertTrue(warehouseSnapshot.isCurrent(file, SOURCES, MODEL));
+        clear();
+        assertTrue(warehouseSnapshot.importIfValid(file, SOURCES, MODEL));
+
+        assertEquals(before, contents());
+    }
+
+    @Test
+    void checksumMismatchIsRejectedAndLeavesTheTablesEmpty() throws Exception {
+        Path file = dir.resolve("warehouse.snap");
+        warehouseSnapshot.export(file, SOURCES, MODEL);
+        clear();
+        // First block: after MAGIC, VERSION, header length, header and its CRC; flip a payload byte
+        long firstBlock = 12 + readInt(file, 8) + 4;
+        long payload = firstBlock + 20;
+        overwrite(file, payload, ~readInt(file, payload));
+
+        assertFalse(warehouseSnapshot.importIfValid(file, SOURCES, MODEL));
+        assertEquals(0, rowCount());
+    }
+
+    @Test
+    void otherFormatVersionIsRejected() throws Exception {
+        Path file = dir.resolve("warehouse.snap");
+        warehouseSnapshot.export(file, SOURCES, MODEL);
+        clear();
+        overwrite(file, 4, readInt(file, 4) - 1);
+
+        assertFalse(warehouseSnapshot.isCurrent(file, SOURCES, MODEL));
+        assertFalse(warehouseSnapshot.importIfValid(file, SOURCES, MODEL));
+        assertEquals(0, rowCount());
+    }
+
+    @Test
+    void otherSentimentModelIsRejected() throws Exception {
+        Path file = dir.resolve("warehouse.snap");
+        warehouseSnapshot.export(file, SOURCES, MODEL);
+        clear();
+
+        assertFalse(warehouseSnapshot.isCurrent(file, SOURCES, "lexicon:other"));
+        assertFalse(warehouseSnapshot.importIfValid(file, SOURCES, "lexicon:other"));
+        assertEquals(0, rowCount());
+    }
+
+    @Test
+    void missingFileIsNotAnError() {
+        assertFalse(warehouseSnapshot.importIfValid(dir.resolve("none.snap"), SOURCES, MODEL));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.movie.review.analyser.metrics;
+
+import com.example.movie.review.analyser.service.LocalMovieDataService;
+import com.example.movie.review.analyser.service.SimilarMovieGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Statement budgets of the movie read endpoints, as reported in the X-Query-Count header. */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:query-count;DB_CLOSE_DELAY=-1",
+    "sentiment.cache.file=",
+    "movie-cache.warm-up.top-movies=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SimilarMovieGraph similarMovieGraph;
+    @Autowired private LocalMovieDataService localMovieDataService;
+
+    @BeforeEach
+    void seed() {
+        for (String table : new String[] {"crew_credit", "similar_movie", "external_review", "person", "movie"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        for (int id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO movie (filmid, title, vote_average, vote_count) VALUES (?, ?, 7.0, ?)", id, "Film " + id, 100 * id);
+            jdbcTemplate.update("INSERT INTO person (personid, name) VALUES (?, ?)", id, "Person " + id);
+            jdbcTemplate.update("INSERT INTO external_review (filmid, author, content, sentiment) VALUES (1, ?, 'Fine.', 'Neutral')", "critic" + id);
+        }
+        for (int personId = 1; personId <= 3; personId++) {
+            jdbcTemplate.update("INSERT INTO crew_credit (filmid, personid, character_name, credit_order) VALUES (1, ?, ?, ?)", personId, "Role " + personId, personId - 1);
+        }
+        jdbcTemplate.update("INSERT INTO similar_movie (filmid, similar_filmid, similarity_rank) VALUES (1, 2, 0), (1, 3, 1)");
+        similarMovieGraph.rebuild();
+        localMovieDataService.clearCaches();
+    }
+
+    @Test
+    void castIsOneJoinAndThenCached() throws Exception {
+        mockMvc.perform(get("/api/movies/1/cast"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(header().string(QueryCountAdvice.HEADER, "1"));
+        mockMvc.perform(get("/api/movies/1/cast"))
+            .andExpect(header().string(QueryCountAdvice.HEADER, "0"));
+    }
+
+    @Test
+    void similarIsServedFromTheGraph() throws Exception {
+        mockMvc.perform(get("/api/movies/1/similar"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].filmid").value(contains(2, 3)))
+            .andExpect(header().string(QueryCountAdvice.HEADER, "0"));
+    }
+
+    // Movie, review stats, cast and external reviews, all on the fan-out tasks; similar comes from the graph
+    @Test
+    void bundleCountsItsFanOutTasks() throws Exception {
+        mockMvc.perform(get("/api/movies/1/bundle"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cast.length()").value(3))
+            .andExpect(header().string(QueryCountAdvice.HEADER, "4"));
+        mockMvc.perform(get("/api/movies/1/bundle"))
+            .andExpect(header().string(QueryCountAdvice.HEADER, "1")); // the stats always come from the primary
+    }
+
+    @Test
+    void bundleRevalidatesWithItsETagAndIs404ForAnUnknownMovie() throws Exception {
+        String etag = mockMvc.perform(get("/api/movies/1/bundle")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/movies/1/bundle").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/movies/99/bundle"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void plainJdbcStatementsAreCountedToo() {
+        QueryCounter.reset();
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movie", Long.class);
+        jdbcTemplate.batchUpdate("UPDATE movie SET vote_count = vote_count WHERE filmid = ?", List.of(new Object[] {1}, new Object[] {2}));
+        assertEquals(2, QueryCounter.current()); // a batch is one round trip
+    }
+}
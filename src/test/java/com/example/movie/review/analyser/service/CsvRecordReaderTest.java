@@ -0,0 +1,67 @@
+package com.example.movie.review.analyser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** RFC 4180 records: quoting, escaped quotes, fields spanning lines and line-ending variants. */
+class CsvRecordReaderTest {
+
+    private static List<String[]> readAll(String csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        List<String[]> records = new ArrayList<>();
+        for (String[] record; (record = reader.next()) != null; ) records.add(record);
+        return records;
+    }
+
+    @Test
+    void splitsPlainAndQuotedFields() throws IOException {
+        List<String[]> records = readAll("movieTitle,reviewText,rating\nHeat,\"Tense, long\",4.5\n\"Say \"\"hi\"\"\",,\n");
+
+        assertEquals(3, records.size());
+        assertArrayEquals(new String[] {"movieTitle", "reviewText", "rating"}, records.get(0));
+        assertArrayEquals(new String[] {"Heat", "Tense, long", "4.5"}, records.get(1));
+        assertArrayEquals(new String[] {"Say \"hi\"", "", ""}, records.get(2));
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() throws IOException {
+        List<String[]> records = readAll("Heat,\"First line\nsecond line\r\nthird\",5\r\nRonin,Short,3");
+
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[] {"Heat", "First line\nsecond line\r\nthird", "5"}, records.get(0));
+        assertArrayEquals(new String[] {"Ronin", "Short", "3"}, records.get(1)); // no final line break
+    }
+
+    @Test
+    void acceptsEveryLineEndingAndSkipsBlankLines() throws IOException {
+        List<String[]> records = readAll("a,b\r\n\r\nc,d\re,f\n\n\ng,h\n");
+
+        assertEquals(4, records.size());
+        assertArrayEquals(new String[] {"c", "d"}, records.get(1));
+        assertArrayEquals(new String[] {"e", "f"}, records.get(2));
+        assertArrayEquals(new String[] {"g", "h"}, records.get(3));
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertNull(new CsvRecordReader(new StringReader("")).next());
+        assertNull(new CsvRecordReader(new StringReader("\n\r\n")).next());
+    }
+
+    @Test
+    void unterminatedQuoteIsAFormatError() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("Heat,ok,4\nRonin,\"never closed,3\n"));
+
+        assertArrayEquals(new String[] {"Heat", "ok", "4"}, reader.next());
+        assertThrows(BulkImportFormatException.class, reader::next);
+    }
+}
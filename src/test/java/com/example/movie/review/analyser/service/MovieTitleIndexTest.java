@@ -0,0 +1,98 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.MovieTitleView;
+import com.example.movie.review.analyser.model.Movie;
+import com.example.movie.review.analyser.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+/** Trigram search over the main segment and the tail of titles added after the build. */
+@ExtendWith(MockitoExtension.class)
+class MovieTitleIndexTest {
+
+    @Mock private MovieRepository movieRepository;
+    @InjectMocks private MovieTitleIndex index;
+
+    private record Title(int getFilmid, String getTitle, int getVoteCount) implements MovieTitleView {
+    }
+
+    private void build(Title... titles) {
+        when(movieRepository.findAllProjectedBy()).thenReturn(List.of(titles));
+        index.rebuild();
+    }
+
+    private static Movie movie(int filmid, String title, int voteCount) {
+        Movie movie = new Movie();
+        movie.setFilmid(filmid);
+        movie.setTitle(title);
+        movie.setVoteCount(voteCount);
+        return movie;
+    }
+
+    @Test
+    void findsSubstringsIgnoringCaseAndAccentsByVoteCount() {
+        build(new Title(1, "The Matrix", 500), new Title(2, "Matrix Reloaded", 900), new Title(3, "Amélie", 300), new Title(4, "Heat", 800));
+
+        assertArrayEquals(new int[] {2, 1}, index.search("MATRIX", 10));
+        assertArrayEquals(new int[] {2}, index.search("matrix", 1));
+        assertArrayEquals(new int[] {3}, index.search("amelie", 10));
+        assertArrayEquals(new int[0], index.search("alien", 10));
+        assertNull(index.search("ma", 10)); // under one trigram
+    }
+
+    @Test
+    void ignoresInsertsUntilBuiltAndThenSearchesTheTail() {
+        index.addAll(List.of(movie(9, "Early Bird", 10)));
+        assertNull(index.search("bird", 10));
+
+        build(new Title(1, "Birdman", 100));
+        index.addAll(List.of(movie(2, "The Birdcage", 200)));
+
+        assertArrayEquals(new int[] {2, 1}, index.search("bird", 10));
+    }
+
+    @Test
+    void reinsertedFilmAppearsOnceWithItsNewTitle() {
+        build(new Title(1, "Star Wars", 100), new Title(2, "Star Trek", 50));
+        index.addAll(List.of(movie(1, "Star Wars: A New Hope", 150)));
+
+        assertArrayEquals(new int[] {1, 2}, index.search("star", 10));
+        assertArrayEquals(new int[] {1}, index.search("new hope", 10));
+
+        index.addAll(List.of(movie(2, "Star Trek: The Motion Picture", 60), movie(2, "Star Trek (1979)", 70)));
+        assertArrayEquals(new int[] {1, 2}, index.search("star", 10));
+        assertArrayEquals(new int[0], index.search("motion", 10));
+    }
+
+    @Test
+    void mergingTheTailKeepsOneEntryPerFilm() {
+        build(new Title(1, "Alpha Centauri", 10), new Title(2, "Beta Station", 20));
+        List<Movie> batch = new ArrayList<>();
+        batch.add(movie(1, "Alpha Centauri Returns", 1_000_000)); // replaces film 1
+        for (int id = 100; id < 5100; id++) batch.add(movie(id, "Filler " + id, 1));
+        index.addAll(batch);
+
+        // Past the tail limit the tail is folded into the main segment
+        assertEquals(0, index.getStats().getPendingTitles());
+        assertEquals(5002, index.getStats().getIndexedTitles());
+        assertArrayEquals(new int[] {1}, index.search("centauri", 10));
+        assertArrayEquals(new int[] {1}, index.search("returns", 10));
+        assertArrayEquals(new int[] {2}, index.search("station", 10));
+        assertArrayEquals(new int[] {5099}, index.search("filler 5099", 10));
+
+        index.addAll(List.of(movie(2, "Gamma Station", 30)));
+        assertArrayEquals(new int[] {2}, index.search("station", 10));
+        assertArrayEquals(new int[0], index.search("beta", 10));
+    }
+}
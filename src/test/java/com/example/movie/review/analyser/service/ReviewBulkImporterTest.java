@@ -0,0 +1,99 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.BulkImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Bulk uploads: bad rows are reported with their row number while the rest are imported. */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bulk-import;DB_CLOSE_DELAY=-1",
+    "sentiment.cache.file=",
+    "sentiment.mode=lexicon",
+    "movie-cache.warm-up.top-movies=0",
+    "reviews.bulk.batch-size=2"
+})
+@ActiveProfiles("test")
+class ReviewBulkImporterTest {
+
+    @Autowired private ReviewBulkImporter importer;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM review");
+        jdbcTemplate.update("DELETE FROM review_aggregate");
+    }
+
+    private BulkImportResult upload(String body, String contentType) throws IOException {
+        return importer.importReviews(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType);
+    }
+
+    private List<String> storedTitles() {
+        return jdbcTemplate.queryForList("SELECT movie_title FROM review ORDER BY movie_title", String.class);
+    }
+
+    @Test
+    void csvRowsAreValidatedOneByOne() throws IOException {
+        BulkImportResult result = upload("Movie Title,Review Text,Rating\r\n"
+            + "Heat,\"Great, tense\nand long\",5\r\n"
+            + "Ronin,Fine,abc\r\n"
+            + ",No title,3\r\n"
+            + "Alien,,4\r\n"
+            + "Amélie,\"Quote \"\"this\"\"\",\r\n"
+            + "Solaris," + "x".repeat(2001) + ",2\r\n", "text/csv; charset=utf-8");
+
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(
+            "row 2: rating is not a number: abc",
+            "row 3: movieTitle is required",
+            "row 4: reviewText is required",
+            "row 6: reviewText is longer than 2000 characters"), result.getErrors());
+        assertEquals(List.of("Amélie", "Heat"), storedTitles());
+        assertEquals("Great, tense\nand long", jdbcTemplate.queryForObject("SELECT review_text FROM review WHERE movie_title = 'Heat'", String.class));
+    }
+
+    @Test
+    void unterminatedQuoteRejectsTheRestButKeepsEarlierRows() throws IOException {
+        BulkImportResult result = upload("movieTitle,reviewText\nHeat,Good\nRonin,\"never closed\n", "text/csv");
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("row 2: Unterminated quoted field"), result.getErrors().get(0));
+    }
+
+    @Test
+    void csvWithoutTheRequiredColumnsIsRefused() {
+        assertThrows(BulkImportFormatException.class, () -> upload("title,stars\nHeat,5\n", "text/csv"));
+    }
+
+    @Test
+    void ndjsonLinesAreNumberedIncludingBlankOnes() throws IOException {
+        BulkImportResult result = upload("{\"movieTitle\":\"Heat\",\"reviewText\":\"Good\",\"rating\":4}\n"
+            + "\n"
+            + "{not json}\n"
+            + "{\"movieTitle\":\"Ronin\",\"rating\":3}\n"
+            + "{\"movieTitle\":\"Alien\",\"reviewText\":\"Scary\",\"id\":1}\n", "application/x-ndjson");
+
+        assertEquals(4, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("row 3: invalid JSON"), result.getErrors().get(0));
+        assertEquals("row 4: reviewText is required", result.getErrors().get(1));
+        assertEquals(List.of("Alien", "Heat"), storedTitles());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.ReviewStats;
+import com.example.movie.review.analyser.model.Review;
+import com.example.movie.review.analyser.model.ReviewAggregate;
+import com.example.movie.review.analyser.repository.ReviewAggregateRepository;
+import com.example.movie.review.analyser.service.ReviewService.SentimentChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The per-title aggregates kept up to date by each write match a rebuild from the reviews table. */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:review-service;DB_CLOSE_DELAY=-1",
+    "sentiment.cache.file=",
+    "movie-cache.warm-up.top-movies=0"
+})
+@ActiveProfiles("test")
+class ReviewServiceTest {
+
+    @Autowired private ReviewService reviewService;
+    @Autowired private ReviewAggregateRepository aggregateRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM review");
+        jdbcTemplate.update("DELETE FROM review_aggregate");
+    }
+
+    private static Review review(String title, String sentiment, double rating) {
+        Review review = new Review();
+        review.setMovieTitle(title);
+        review.setReviewText("Text for " + title);
+        review.setSentiment(sentiment);
+        review.setRating(rating);
+        return review;
+    }
+
+    private List<ReviewAggregate> aggregates() {
+        return aggregateRepository.findAll(Sort.by("titleKey"));
+    }
+
+    private void assertMatchesRebuild() {
+        List<ReviewAggregate> incremental = aggregates();
+        reviewService.rebuildAggregates();
+        assertEquals(aggregates(), incremental);
+    }
+
+    @Test
+    void createsFoldIntoOneAggregatePerTitle() {
+        Review saved = reviewService.save(review("Heat", "Positive", 4));
+        Review withId = review("HEAT", "Negative", 2);
+        withId.setId(saved.getId());
+        assertNotEquals(saved.getId(), reviewService.save(withId).getId()); // never overwrites
+
+        reviewService.saveAll(List.of(review("heat", "Neutral", 3), review("Amélie", "Positive", 5), review("Amélie", Review.PENDING, 1)));
+
+        ReviewStats heat = reviewService.getStats("hEaT");
+        assertEquals(3, heat.getTotalReviews());
+        assertEquals(3.0, heat.getAverageRating(), 1e-9);
+        assertEquals("Positive", heat.getDominantSentiment()); // ties go to Positive
+        assertEquals(new ReviewStats(0, 0.0, "N/A"), reviewService.getStats("Unknown"));
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void sentimentUpdatesMoveCountsBetweenLabels() {
+        Review first = reviewService.save(review("Heat", "Positive", 4));
+        Review second = reviewService.save(review("Heat", "Positive", 5));
+        reviewService.save(review("Heat", "Neutral", 3));
+
+        int changed = reviewService.updateSentiments(List.of(
+            new SentimentChange(first.getId(), "heat", "Positive", "Negative"),
+            new SentimentChange(second.getId(), "heat", "Neutral", "Negative"))); // stale: second is Positive
+
+        assertEquals(1, changed);
+        ReviewAggregate heat = aggregateRepository.findById("heat").orElseThrow();
+        assertEquals(1, heat.getPositiveCount());
+        assertEquals(1, heat.getNegativeCount());
+        assertEquals(1, heat.getNeutralCount());
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void scoringAPendingReviewCountsOnce() {
+        Review pending = reviewService.save(review("Heat", Review.PENDING, 4));
+        assertEquals(Review.PENDING, reviewService.getStats("heat").getDominantSentiment());
+
+        assertTrue(reviewService.completeScoring(pending, "Negative"));
+        assertFalse(reviewService.completeScoring(pending, "Positive")); // already scored
+
+        ReviewAggregate heat = aggregateRepository.findById("heat").orElseThrow();
+        assertEquals(0, heat.getPendingCount());
+        assertEquals(1, heat.getNegativeCount());
+        assertEquals(0, heat.getPositiveCount());
+        assertMatchesRebuild();
+    }
+
+    // Reviews removed with plain SQL (there is no delete endpoint) are only picked up by a rebuild
+    @Test
+    void rebuildDropsTitlesWithoutReviews() {
+        reviewService.save(review("Heat", "Positive", 4));
+        reviewService.save(review("Ronin", "Negative", 2));
+        jdbcTemplate.update("DELETE FROM review WHERE movie_title_key = 'ronin'");
+
+        reviewService.rebuildAggregates();
+
+        assertEquals(List.of("heat"), aggregates().stream().map(ReviewAggregate::getTitleKey).toList());
+        assertEquals(new ReviewStats(0, 0.0, "N/A"), reviewService.getStats("Ronin"));
+    }
+
+    // Rows written before title keys existed are keyed with the same case folding as new ones
+    @Test
+    void rebuildKeysRowsWrittenWithoutATitleKey() {
+        jdbcTemplate.update("INSERT INTO review (movie_title, movie_title_key, review_text, sentiment, rating) VALUES ('ÉCOLE', NULL, 'x', 'Positive', 4)");
+
+        reviewService.rebuildAggregates();
+
+        assertEquals(ReviewAggregate.keyOf("ÉCOLE"), jdbcTemplate.queryForObject("SELECT movie_title_key FROM review", String.class));
+        assertEquals(1, reviewService.getStats("école").getTotalReviews());
+    }
+}
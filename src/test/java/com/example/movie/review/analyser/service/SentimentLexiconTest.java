@@ -0,0 +1,81 @@
+package com.example.movie.review.analyser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Lexicon scoring (sentence weighting, negation, coverage) and the label cutoff applied to scores. */
+class SentimentLexiconTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private final SentimentLexicon lexicon = new SentimentLexicon(Map.of("good", 2f, "bad", -2f, "like", 1f, "boring", -1f));
+
+    private void assertScore(double value, double coverage, String text) {
+        SentimentLexicon.Score score = lexicon.score(text);
+        assertEquals(value, score.value(), EPSILON, "value of: " + text);
+        assertEquals(coverage, score.coverage(), EPSILON, "coverage of: " + text);
+    }
+
+    @Test
+    void sentenceScoreIsTheMeanOfItsKnownTokens() {
+        assertScore(2.0, 1.0, "Good!");
+        assertScore(2.0, 0.25, "The movie was GOOD");
+        assertScore(0.0, 2.0 / 3, "Good but bad.");
+        assertScore(0.0, 0.0, "Nothing here is known");
+        assertScore(0.0, 0.0, "... !?");
+    }
+
+    @Test
+    void longerSentencesWeighMore() {
+        // [good] scores 2 over 1 token, [the plot was boring and slow] scores -1 over 6
+        assertScore((2.0 - 6.0) / 7, 2.0 / 7, "Good. The plot was boring and slow.");
+    }
+
+    @Test
+    void negatorsInvertAndDampTheNextThreeTokens() {
+        assertScore(2 * SentimentLexicon.NEGATION_FACTOR, 0.5, "Not good.");
+        assertScore(1 * SentimentLexicon.NEGATION_FACTOR, 0.25, "I didn't like it");
+        assertScore(1 * SentimentLexicon.NEGATION_FACTOR, 0.25, "I didn’t like it"); // typographic apostrophe
+        assertScore(2 * SentimentLexicon.NEGATION_FACTOR, 0.25, "never really very good");
+        assertScore(2.0, 0.2, "never a dull moment, good"); // out of scope
+        assertScore(1.0, 0.5, "Not. Good."); // scope ends with the sentence
+    }
+
+    @Test
+    void tokenizerKeepsInnerApostrophesAndHyphens() {
+        assertEquals(List.of(List.of("a", "well-made", "film"), List.of("isn't", "it", "really")),
+            SentimentLexicon.sentences("A well-made film! Isn't it -- 'really'?"));
+    }
+
+    @Test
+    void loadsTabSeparatedWeights() throws IOException {
+        String tsv = "# token\tweight\n\nGood\t1.5\nbad \t -2\n";
+        SentimentLexicon loaded = SentimentLexicon.load(new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, loaded.size());
+        assertEquals(-0.25, loaded.score("good bad").value(), EPSILON);
+        assertThrows(IOException.class, () -> SentimentLexicon.load(new ByteArrayInputStream("good 2\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    // Scores are on the class scale centred on neutral; half a class either way decides the label
+    @Test
+    void labelsCutOffHalfAClassFromNeutral() {
+        assertEquals("Positive", SentimentAnalysisService.labelOf(0.5));
+        assertEquals("Positive", SentimentAnalysisService.labelOf(2.0));
+        assertEquals("Neutral", SentimentAnalysisService.labelOf(0.4999));
+        assertEquals("Neutral", SentimentAnalysisService.labelOf(0.0));
+        assertEquals("Neutral", SentimentAnalysisService.labelOf(-0.4999));
+        assertEquals("Negative", SentimentAnalysisService.labelOf(-0.5));
+        assertEquals("Negative", SentimentAnalysisService.labelOf(-2.0));
+        assertEquals("Negative", SentimentAnalysisService.labelOf(lexicon.score("Not good.").value()));
+        assertEquals("Neutral", SentimentAnalysisService.labelOf(lexicon.score("Good but bad.").value()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.movie.review.analyser.service;
+
+import com.example.movie.review.analyser.dto.MovieSummary;
+import com.example.movie.review.analyser.dto.SimilarGraphStats;
+import com.example.movie.review.analyser.loader.WarehouseLoadedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** CSR construction of the similar-movie graph and its breadth-first expansion. */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:similar-graph;DB_CLOSE_DELAY=-1",
+    "sentiment.cache.file=",
+    "movie-cache.warm-up.top-movies=0"
+})
+@ActiveProfiles("test")
+class SimilarMovieGraphTest {
+
+    @Autowired private SimilarMovieGraph graph;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    //   1 -> 2, 3      2 -> 4, 1, 3      3 -> 5      4 -> 6      5 -> 6      6 -> 7      8: no links
+    // plus 1 -> 99 (unknown film) and 7 -> 7 (self link), which are dropped
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM similar_movie");
+        jdbcTemplate.update("DELETE FROM movie");
+        for (int id = 1; id <= 8; id++) {
+            jdbcTemplate.update("INSERT INTO movie (filmid, title, poster_path, release_date, vote_average, vote_count) VALUES (?, ?, ?, '2000-01-01', 7.5, ?)",
+                id, "Film " + id, "/" + id + ".jpg", 10 * id);
+        }
+        link(1, 2, 3, 99);
+        link(2, 4, 1, 3);
+        link(3, 5);
+        link(4, 6);
+        link(5, 6);
+        link(6, 7);
+        link(7, 7);
+        graph.rebuild();
+    }
+
+    private void link(int filmid, int... targets) {
+        for (int rank = 0; rank < targets.length; rank++) {
+            jdbcTemplate.update("INSERT INTO similar_movie (filmid, similarity_rank, similar_filmid) VALUES (?, ?, ?)", filmid, rank, targets[rank]);
+        }
+    }
+
+    private List<Integer> similar(int filmid, int hops, int limit) {
+        return graph.findSimilar(filmid, hops, limit).stream().map(MovieSummary::getFilmid).toList();
+    }
+
+    @Test
+    void directLinksComeInRankOrder() {
+        assertEquals(List.of(2, 3), similar(1, 1, 10));
+        assertEquals(List.of(4, 1, 3), similar(2, 1, 10));
+        assertEquals(new MovieSummary(2, "Film 2", "/2.jpg", "2000-01-01", 7.5, 20), graph.findSimilar(1, 1, 1).get(0));
+    }
+
+    @Test
+    void expandsLevelByLevelWithoutRepeatsOrTheStartFilm() {
+        assertEquals(List.of(2, 3, 4, 5), similar(1, 2, 10));
+        assertEquals(List.of(2, 3, 4, 5, 6), similar(1, 3, 10));
+        assertEquals(List.of(6, 7), similar(5, 3, 10));
+    }
+
+    @Test
+    void hopsAndLimitAreClamped() {
+        assertEquals(similar(1, SimilarMovieGraph.MAX_HOPS, 10), similar(1, 10, 10));
+        assertEquals(List.of(2, 3), similar(1, 0, 10)); // at least one hop
+        assertEquals(List.of(2, 3, 4), similar(1, 3, 3)); // stops mid-level
+        assertEquals(List.of(2), similar(1, 3, 0)); // at least one result
+    }
+
+    @Test
+    void unknownAndUnlinkedFilmsHaveNoSimilarMovies() {
+        assertEquals(List.of(), similar(42, 1, 5));
+        assertEquals(List.of(), similar(8, 3, 5));
+        assertEquals(List.of(), similar(7, 3, 5)); // only its dropped self link
+    }
+
+    @Test
+    void countsKeptAndDroppedLinks() {
+        SimilarGraphStats stats = graph.getStats();
+        assertEquals(8, stats.getMovies());
+        assertEquals(9, stats.getLinks());
+        assertEquals(2, stats.getDroppedLinks());
+    }
+
+    @Test
+    void rebuildsWhenTheWarehouseIsReloaded() {
+        link(8, 1);
+        assertEquals(List.of(), similar(8, 1, 5));
+
+        eventPublisher.publishEvent(new WarehouseLoadedEvent(true));
+
+        assertEquals(List.of(1), similar(8, 1, 5));
+    }
+}